@@ -6,9 +6,14 @@ import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigList;
 import com.typesafe.config.ConfigMemorySize;
 import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigResolveOptions;
 import com.typesafe.config.ConfigValue;
 import com.typesafe.config.ConfigValueType;
+import io.github.dkichler.config.CompactStringMap;
 import io.github.dkichler.config.ConfigRecordException;
+import io.github.dkichler.config.KeyNamingStrategy;
+import io.github.dkichler.config.LookupTable;
+import io.github.dkichler.config.PrefixTrieMap;
 
 import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
@@ -17,9 +22,7 @@ import java.beans.PropertyDescriptor;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.Parameter;
 import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.RecordComponent;
 import java.lang.reflect.Type;
 import java.time.Duration;
 import java.util.ArrayList;
@@ -36,31 +39,48 @@ public class ConfigRecordImpl {
     private ConfigRecordImpl() {}
 
     public static <T extends Record> T createInternal(Config config, Class<T> recordClass) {
-        if (((SimpleConfig) config).root().resolveStatus() != ResolveStatus.RESOLVED)
+        return createInternal(config, recordClass, KeyNamingStrategy.DEFAULT);
+    }
+
+    public static <T extends Record> T createInternal(Config config, Class<T> recordClass, KeyNamingStrategy naming) {
+        SimpleConfig simpleConfig = (SimpleConfig) config;
+        AbstractConfigObject root = simpleConfig.root();
+        if (root.resolveStatus() != ResolveStatus.RESOLVED)
             throw new ConfigException.NotResolved(
                     "need to Config#resolve() a config before using it to initialize a record, see the API docs for Config#resolve()");
 
+        ConfigRecordPlan plan = ConfigRecordPlan.forClass(recordClass);
+        ConfigRecordPlan.Keys keys = plan.keys(naming);
+
         // catch as many validations up front as possible
         List<ConfigException.ValidationProblem> problems = new ArrayList<>();
-        RecordComponent[] recordComponents = recordClass.getRecordComponents();
-
-        Map<String,String> fieldNameToKey = new HashMap<>();
-        for (RecordComponent component : recordComponents) {
-            String name = component.getName();
-
-            var key = resolveKey(config, name);
-            fieldNameToKey.put(name, key);
-            ConfigValueType expectedType = getValueTypeOrNull(component.getType());
-            if (key == null && !isOptionalProperty(component)) {
-                var type = expectedType != null ? expectedType.name().toLowerCase() : component.getType().toString();
+        // the key each component is bound from, or null if it is missing, as a path expression and parsed
+        String[] componentKeys = new String[plan.components.length];
+        Path[] componentPaths = new Path[plan.components.length];
+        for (int i = 0; i < plan.components.length; i++) {
+            ConfigRecordPlan.Component component = plan.components[i];
+            String name = component.name;
+
+            AbstractConfigValue configValue = null;
+            Path path = null;
+            for (int k = 0; k < keys.paths[i].length; k++) {
+                AbstractConfigValue candidate = root.peekPath(keys.paths[i][k]);
+                // same as Config#hasPath, which treats null as missing
+                if (candidate != null && candidate.valueType() != ConfigValueType.NULL) {
+                    configValue = candidate;
+                    path = keys.paths[i][k];
+                    componentKeys[i] = keys.expressions[i][k];
+                    componentPaths[i] = path;
+                    break;
+                }
+            }
+            ConfigValueType expectedType = getValueTypeOrNull(component.type);
+            if (configValue == null && !component.optional) {
+                var type = expectedType != null ? expectedType.name().toLowerCase() : component.type.toString();
                 problems.add(new ConfigException.ValidationProblem(name, config.origin(), "No setting at '" + name + "', expecting " + type));
             }
-            if (expectedType != null && key != null) {
-                Path path = Path.newKey(key);
-                AbstractConfigValue configValue = (AbstractConfigValue) config.getValue(key);
-                if (configValue != null) {
-                    SimpleConfig.checkValid(path, expectedType, configValue, problems);
-                }
+            if (expectedType != null && configValue != null) {
+                SimpleConfig.checkValid(path, expectedType, configValue, problems);
             }
         }
 
@@ -69,18 +89,20 @@ public class ConfigRecordImpl {
         }
 
         try {
-            Constructor<T> constructor = getCanonicalConstructor(recordClass);
-            Parameter[] parameters = constructor.getParameters();
-            Object[] args = new Object[parameters.length];
+            Constructor<T> constructor = getCanonicalConstructor(plan);
+            Object[] args = new Object[plan.components.length];
 
-            for (int i = 0; i < parameters.length; i++) {
-                Parameter param = parameters[i];
-                var key = fieldNameToKey.get(param.getName());
+            for (int i = 0; i < plan.components.length; i++) {
+                ConfigRecordPlan.Component component = plan.components[i];
+                var key = componentKeys[i];
                 // null indicates key was not found but is optional, set as null
+                Object scalar;
 
                 args[i] = key == null ?
-                        (param.getType() == Optional.class ? Optional.empty() : null)
-                        : getConfigValue(config, param);
+                        (component.type == Optional.class ? Optional.empty() : null)
+                        : component.lookupTable != null ? getLookupTableValue(config, key, component, naming)
+                        : (scalar = getScalarComponentValue(simpleConfig, componentPaths[i], key, component)) != null ? scalar
+                        : getConfigValue(config, key, component, naming);
             }
             return constructor.newInstance(args);
         } catch (ConfigException e) {
@@ -90,6 +112,17 @@ public class ConfigRecordImpl {
         }
     }
 
+    public static <T extends Record> T createPartiallyResolvedInternal(Config config, String path, Class<T> recordClass,
+                                                                      ConfigResolveOptions options, KeyNamingStrategy naming) {
+        AbstractConfigObject root = ((SimpleConfig) config).root();
+        if (root.resolveStatus() == ResolveStatus.RESOLVED)
+            return createInternal(path == null ? config : config.getConfig(path), recordClass, naming);
+
+        Path scopePath = path == null ? null : Path.newPath(path);
+        AbstractConfigObject resolved = ConfigRecordResolver.resolveForRecord(root, scopePath, recordClass, options, naming);
+        return createInternal(resolved.toConfig(), recordClass, naming);
+    }
+
     // null if we can't easily say; this is heuristic/best-effort
     private static ConfigValueType getValueTypeOrNull(Class<?> parameterClass) {
         if (parameterClass == Boolean.class || parameterClass == boolean.class) {
@@ -108,7 +141,7 @@ public class ConfigRecordImpl {
             return null;
         } else if (parameterClass == List.class) {
             return ConfigValueType.LIST;
-        } else if (parameterClass == Map.class) {
+        } else if (parameterClass == Map.class || parameterClass == CompactStringMap.class || parameterClass == PrefixTrieMap.class) {
             return ConfigValueType.OBJECT;
         } else if (parameterClass == Config.class) {
             return ConfigValueType.OBJECT;
@@ -116,33 +149,22 @@ public class ConfigRecordImpl {
             return ConfigValueType.OBJECT;
         } else if (parameterClass == ConfigList.class) {
             return ConfigValueType.LIST;
+        } else if (ConfigRecordVariants.forType(parameterClass) != null) {
+            return ConfigValueType.OBJECT;
         } else {
             return null;
         }
     }
 
-    // key should be record field name camel case
-    private static String resolveKey(Config config, String key) {
-        return config.hasPath(key) ? key : config.hasPath(toKebabCase(key)) ? toKebabCase(key) : null;
-    }
-
-    private static boolean isOptionalProperty(RecordComponent field) {
-        return field.getType() == Optional.class || field.getAnnotationsByType(com.typesafe.config.Optional.class).length > 0;
-    }
-
 
     @SuppressWarnings("unchecked")
-    private static <T extends Record> Constructor<T> getCanonicalConstructor(Class<T> recordClass) {
-        Constructor<?>[] constructors = recordClass.getDeclaredConstructors();
-        return (Constructor<T>) constructors[0];
+    private static <T extends Record> Constructor<T> getCanonicalConstructor(ConfigRecordPlan plan) {
+        return (Constructor<T>) plan.constructor;
     }
 
-    private static Object getConfigValue(Config config, Parameter param) {
-        Class<?> type = param.getType();
-        String key = param.getName();
-        if (!config.hasPath(key)) {
-            key = toKebabCase(key);
-        }
+    private static Object getConfigValue(Config config, String key, ConfigRecordPlan.Component component, KeyNamingStrategy naming) {
+        Class<?> type = component.type;
+        ConfigRecordVariants variants;
 
         if (type == String.class) {
             return config.getString(key);
@@ -159,13 +181,13 @@ public class ConfigRecordImpl {
         } else if (type == ConfigMemorySize.class) {
             return config.getMemorySize(key);
         } else if (type == Optional.class) {
-            return getOptionalValue(config, key, param);
+            return getOptionalValue(config, key, component.genericType, naming);
         } else if (type == List.class) {
-            return getListValue(config, key, (ParameterizedType) param.getParameterizedType());
+            return getListValue(config, key, (ParameterizedType) component.genericType, naming);
         } else if (type == Set.class) {
-            return getSetValue(config, key, (ParameterizedType) param.getParameterizedType());
+            return getSetValue(config, key, (ParameterizedType) component.genericType, naming);
         } else if (type == Map.class) {
-            return getMapValue(config, key, (ParameterizedType) param.getParameterizedType());
+            return getMapValue(config, key, (ParameterizedType) component.genericType, naming);
         } else if (type == Object.class) {
             return config.getAnyRef(key);
         } else if (type == Config.class) {
@@ -180,11 +202,13 @@ public class ConfigRecordImpl {
             @SuppressWarnings("unchecked")
             Enum enumValue = config.getEnum((Class<Enum>) type, key);
             return enumValue;
+        } else if ((variants = ConfigRecordVariants.forType(type)) != null) {
+            return getVariantValue(config.getObject(key), key, variants, naming);
         } else if (hasAtLeastOneBeanProperty(type)) {
             return ConfigBeanImpl.createInternal(config.getConfig(key), type);
         } else if (Record.class.isAssignableFrom(type)) {
             Config nestedConfig = config.getConfig(key);
-            return createInternal(nestedConfig, (Class<? extends Record>) type);
+            return createInternal(nestedConfig, (Class<? extends Record>) type, naming);
         } else {
             throw new ConfigRecordException.BadRecord("Unsupported type for field " + key + ": " + type);
         }
@@ -208,14 +232,14 @@ public class ConfigRecordImpl {
         return false;
     }
 
-    private static Optional<?> getOptionalValue(Config config, String key, Parameter param) {
-        Type genericType = param.getParameterizedType();
+    private static Optional<?> getOptionalValue(Config config, String key, Type genericType, KeyNamingStrategy naming) {
         if (config.hasPath(key)) {
             if (genericType instanceof ParameterizedType) {
                 ParameterizedType paramType = (ParameterizedType) genericType;
                 Type[] typeArgs = paramType.getActualTypeArguments();
                 if (typeArgs.length > 0) {
                     Class<?> elementType;
+                    ConfigRecordVariants variants;
                     if (typeArgs[0] instanceof ParameterizedType) {
                         try {
                             elementType = Class.forName(((ParameterizedType) typeArgs[0]).getRawType().getTypeName());
@@ -251,19 +275,21 @@ public class ConfigRecordImpl {
                     } else if (elementType == ConfigList.class) {
                         return Optional.of(config.getList(key));
                     } else if (elementType == List.class) {
-                        return Optional.of(getListValue(config, key, (ParameterizedType) typeArgs[0]));
+                        return Optional.of(getListValue(config, key, (ParameterizedType) typeArgs[0], naming));
                     } else if (elementType == Set.class) {
-                        return Optional.of(getSetValue(config, key, (ParameterizedType) typeArgs[0]));
+                        return Optional.of(getSetValue(config, key, (ParameterizedType) typeArgs[0], naming));
                     } else if (elementType == Map.class) {
-                        return Optional.of(getMapValue(config, key, (ParameterizedType) typeArgs[0]));
+                        return Optional.of(getMapValue(config, key, (ParameterizedType) typeArgs[0], naming));
                     } else if (elementType.isEnum()) {
                         @SuppressWarnings("unchecked")
                         Enum enumValue = config.getEnum((Class<Enum>) elementType, key);
                         return Optional.of(enumValue);
+                    } else if ((variants = ConfigRecordVariants.forType(elementType)) != null) {
+                        return Optional.of(getVariantValue(config.getObject(key), key, variants, naming));
                     } else if (hasAtLeastOneBeanProperty(elementType)) {
                         return Optional.of(ConfigBeanImpl.createInternal(config.getConfig(key), elementType));
                     } else if (Record.class.isAssignableFrom(elementType)) {
-                        return Optional.of(createInternal(config.getConfig(key), (Class<? extends Record>) elementType));
+                        return Optional.of(createInternal(config.getConfig(key), (Class<? extends Record>) elementType, naming));
                     }
 
                 }
@@ -274,10 +300,11 @@ public class ConfigRecordImpl {
         }
     }
 
-    private static List<?> getListValue(Config config, String key, ParameterizedType type) {
+    private static List<?> getListValue(Config config, String key, ParameterizedType type, KeyNamingStrategy naming) {
         Type[] typeArgs = type.getActualTypeArguments();
         if (typeArgs.length > 0) {
             Class<?> elementType = (Class<?>) typeArgs[0];
+            ConfigRecordVariants variants;
             if (elementType == String.class) {
                 return config.getStringList(key);
             } else if (elementType == Integer.class) {
@@ -304,6 +331,13 @@ public class ConfigRecordImpl {
                 @SuppressWarnings("unchecked")
                 List<Enum> enumValues = config.getEnumList((Class<Enum>) elementType, key);
                 return enumValues;
+            } else if ((variants = ConfigRecordVariants.forType(elementType)) != null) {
+                List<? extends ConfigObject> objectList = config.getObjectList(key);
+                List<Object> result = new ArrayList<>(objectList.size());
+                for (int i = 0; i < objectList.size(); i++) {
+                    result.add(getVariantValue(objectList.get(i), key + "." + i, variants, naming));
+                }
+                return result;
             } else if (hasAtLeastOneBeanProperty((Class<?>) elementType)) {
                 List<Object> beanList = new ArrayList<Object>();
                 List<? extends Config> configList = config.getConfigList(key);
@@ -315,7 +349,7 @@ public class ConfigRecordImpl {
                 List<? extends Config> configList = config.getConfigList(key);
                 List<Object> result = new ArrayList<>();
                 for (Config itemConfig : configList) {
-                    result.add(createInternal(itemConfig, (Class<? extends Record>) elementType));
+                    result.add(createInternal(itemConfig, (Class<? extends Record>) elementType, naming));
                 }
                 return result;
             }
@@ -323,12 +357,12 @@ public class ConfigRecordImpl {
         throw new ConfigRecordException.BadRecord("Unsupported list element type for field " + key + ": " + type, null);
     }
 
-    private static Set<?> getSetValue(Config config, String key, ParameterizedType param) {
-        List<?> list = getListValue(config, key,param);
+    private static Set<?> getSetValue(Config config, String key, ParameterizedType param, KeyNamingStrategy naming) {
+        List<?> list = getListValue(config, key, param, naming);
         return new HashSet<>(list);
     }
 
-    private static Map<String, ?> getMapValue(Config config, String key, ParameterizedType paramType) {
+    private static Map<String, ?> getMapValue(Config config, String key, ParameterizedType paramType, KeyNamingStrategy naming) {
         Type[] typeArgs = paramType.getActualTypeArguments();
 
         if (typeArgs.length != 2) {
@@ -343,26 +377,80 @@ public class ConfigRecordImpl {
             throw new ConfigRecordException.BadRecord("Unsupported map key type: " + keyType + ". Only Map<String, ?> is supported");
         }
 
+        return getMapEntries(config, key, valueType, naming);
+    }
+
+    private static Map<String, Object> getMapEntries(Config config, String key, Type valueType, KeyNamingStrategy naming) {
         // Get the config object at this key
-        ConfigObject configObject = config.getObject(key);
+        AbstractConfigObject configObject = (AbstractConfigObject) config.getObject(key);
+        SimpleConfig mapConfig = configObject.toConfig();
         Map<String, Object> result = new HashMap<>();
 
         for (Map.Entry<String, ConfigValue> entry : configObject.entrySet()) {
             String mapKey = entry.getKey();
-            Object mapValue = getMapValueForType(
-                    config.getConfig(key),
-                    mapKey,
-                    valueType
-            );
+            // a single key, so "example.com" is not looked up as a path
+            Path mapPath = Path.newKey(mapKey);
+            Object mapValue = getScalarValue(mapConfig, mapPath, mapKey, valueType);
+            if (mapValue == null) {
+                mapValue = getMapValueForType(
+                        mapConfig,
+                        mapPath.render(),
+                        valueType,
+                        naming
+                );
+            }
             result.put(mapKey, mapValue);
         }
 
         return result;
     }
 
-    private static Object getMapValueForType(Config config, String key, Type valueType) {
+    // a scalar component, or an Optional of one, found by the Path already parsed for it; null for other types
+    private static Object getScalarComponentValue(SimpleConfig config, Path path, String key, ConfigRecordPlan.Component component) {
+        if (component.type != Optional.class)
+            return getScalarValue(config, path, key, component.type);
+        if (!(component.genericType instanceof ParameterizedType))
+            return null;
+        Object value = getScalarValue(config, path, key, ((ParameterizedType) component.genericType).getActualTypeArguments()[0]);
+        return value == null ? null : Optional.of(value);
+    }
+
+    // Scalar values are found by a Path, as the typed getters would parse the key as a path expression
+    // on every bind, which for keys such as "http2Port" or "key-1" goes through the full tokenizer.
+    // Converted as the getters do, with the key in any error; null for other types.
+    private static Object getScalarValue(SimpleConfig config, Path path, String key, Type valueType) {
+        if (valueType == String.class) {
+            return config.find(path, ConfigValueType.STRING, path).unwrapped();
+        } else if (valueType == Integer.class || valueType == int.class) {
+            return ((ConfigNumber) config.find(path, ConfigValueType.NUMBER, path)).intValueRangeChecked(key);
+        } else if (valueType == Long.class || valueType == long.class) {
+            return ((ConfigNumber) config.find(path, ConfigValueType.NUMBER, path)).longValue();
+        } else if (valueType == Double.class || valueType == double.class) {
+            return ((ConfigNumber) config.find(path, ConfigValueType.NUMBER, path)).doubleValue();
+        } else if (valueType == Boolean.class || valueType == boolean.class) {
+            return config.find(path, ConfigValueType.BOOLEAN, path).unwrapped();
+        } else if (valueType == Duration.class) {
+            AbstractConfigValue value = config.find(path, ConfigValueType.STRING, path);
+            return Duration.ofNanos(SimpleConfig.parseDuration((String) value.unwrapped(), value.origin(), key));
+        }
+        return null;
+    }
+
+    private static Map<String, ?> getLookupTableValue(Config config, String key, ConfigRecordPlan.Component component, KeyNamingStrategy naming) {
+        if (!(component.genericType instanceof ParameterizedType))
+            throw new ConfigRecordException.BadRecord("Unsupported raw map type for field " + key + ": " + component.type);
+        ParameterizedType paramType = (ParameterizedType) component.genericType;
+        // CompactStringMap<V> and PrefixTrieMap<V> are keyed by String already
+        Map<String, ?> entries = component.type == Map.class
+                ? getMapValue(config, key, paramType, naming)
+                : getMapEntries(config, key, paramType.getActualTypeArguments()[0], naming);
+        return component.lookupTable == LookupTable.Kind.PREFIX_TRIE ? PrefixTrieMap.copyOf(entries) : CompactStringMap.copyOf(entries);
+    }
+
+    private static Object getMapValueForType(Config config, String key, Type valueType, KeyNamingStrategy naming) {
         if (valueType instanceof Class<?>) {
             Class<?> valueClass = (Class<?>) valueType;
+            ConfigRecordVariants variants;
 
             if (valueClass == String.class) {
                 return config.getString(key);
@@ -390,10 +478,12 @@ public class ConfigRecordImpl {
                 @SuppressWarnings("unchecked")
                 Enum enumValue = config.getEnum((Class<Enum>) valueClass, key);
                 return enumValue;
+            } else if ((variants = ConfigRecordVariants.forType(valueClass)) != null) {
+                return getVariantValue(config.getObject(key), key, variants, naming);
             } else if (Record.class.isAssignableFrom(valueClass)) {
                 // Map value is a record - recursively parse it
                 Config nestedConfig = config.getConfig(key);
-                return createInternal(nestedConfig, (Class<? extends Record>) valueClass);
+                return createInternal(nestedConfig, (Class<? extends Record>) valueClass, naming);
             } else if (hasAtLeastOneBeanProperty(valueClass)) {
                 return ConfigBeanImpl.createInternal(config.getConfig(key), valueClass);
             } else if (valueClass == Object.class) {
@@ -402,13 +492,15 @@ public class ConfigRecordImpl {
         } else if (valueType instanceof ParameterizedType) {
             // Handle nested generics like Map<String, List<SomeRecord>>
             ParameterizedType paramValueType = (ParameterizedType) valueType;
-            return getListValue(config, key, paramValueType);
+            return getListValue(config, key, paramValueType, naming);
         }
 
         throw new ConfigRecordException.BadRecord("Unsupported map value type: " + valueType);
     }
 
-    private static String toKebabCase(String camelCase) {
-        return camelCase.replaceAll("([a-z0-9])([A-Z])", "$1-$2").toLowerCase();
+    // binds the record named by the discriminator of the object
+    @SuppressWarnings("unchecked")
+    private static Record getVariantValue(ConfigObject object, String key, ConfigRecordVariants variants, KeyNamingStrategy naming) {
+        return createInternal(object.toConfig(), (Class<? extends Record>) variants.select(object, key), naming);
     }
 }
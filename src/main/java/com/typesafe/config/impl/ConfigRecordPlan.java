@@ -0,0 +1,172 @@
+package com.typesafe.config.impl;
+
+import io.github.dkichler.config.CompactStringMap;
+import io.github.dkichler.config.ConfigAlias;
+import io.github.dkichler.config.ConfigRecordException;
+import io.github.dkichler.config.KeyNamingStrategy;
+import io.github.dkichler.config.LookupTable;
+import io.github.dkichler.config.PrefixTrieMap;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reflective metadata for a record class, computed once per class and cached.
+ */
+final class ConfigRecordPlan {
+
+    private static final int MAX_NAMINGS = 16;
+
+    private static final ClassValue<ConfigRecordPlan> PLANS = new ClassValue<>() {
+        @Override
+        protected ConfigRecordPlan computeValue(Class<?> type) {
+            return new ConfigRecordPlan(type);
+        }
+    };
+
+    final Class<?> recordClass;
+    final Component[] components;
+    // takes the component values in the order of components
+    final Constructor<?> constructor;
+    private final Keys defaultKeys;
+    // the keys for each strategy bound with other than the default, up to MAX_NAMINGS of them
+    private final ConcurrentHashMap<KeyNamingStrategy, Keys> keysByNaming = new ConcurrentHashMap<>();
+
+    private ConfigRecordPlan(Class<?> recordClass) {
+        if (!recordClass.isRecord())
+            throw new ConfigRecordException.BadRecord(recordClass.getName() + " is not a record");
+        this.recordClass = recordClass;
+        RecordComponent[] recordComponents = recordClass.getRecordComponents();
+        this.components = new Component[recordComponents.length];
+        Class<?>[] parameterTypes = new Class<?>[recordComponents.length];
+        for (int i = 0; i < recordComponents.length; i++) {
+            components[i] = new Component(recordComponents[i]);
+            parameterTypes[i] = components[i].type;
+        }
+        try {
+            this.constructor = recordClass.getDeclaredConstructor(parameterTypes);
+        } catch (NoSuchMethodException e) {
+            throw new ConfigRecordException.BadRecord("No canonical constructor found for record " + recordClass.getName(), e);
+        }
+        constructor.trySetAccessible();
+        this.defaultKeys = new Keys(KeyNamingStrategy.DEFAULT, components);
+    }
+
+    static ConfigRecordPlan forClass(Class<?> recordClass) {
+        return PLANS.get(recordClass);
+    }
+
+    /**
+     * @return the keys each component is bound from under the given naming strategy
+     */
+    Keys keys(KeyNamingStrategy naming) {
+        if (naming == KeyNamingStrategy.DEFAULT)
+            return defaultKeys;
+        Keys keys = keysByNaming.get(naming);
+        if (keys == null) {
+            keys = new Keys(naming, components);
+            // a strategy made anew for every bind would otherwise fill the map
+            if (keysByNaming.size() < MAX_NAMINGS)
+                keysByNaming.putIfAbsent(naming, keys);
+        }
+        return keys;
+    }
+
+    /**
+     * The keys tried in turn for each component, in the order of components, both parsed
+     * and rendered as path expressions.
+     */
+    static final class Keys {
+        final Path[][] paths;
+        final String[][] expressions;
+
+        private Keys(KeyNamingStrategy naming, Component[] components) {
+            this.paths = new Path[components.length][];
+            this.expressions = new String[components.length][];
+            for (int i = 0; i < components.length; i++) {
+                List<String> keys = new ArrayList<>(naming.keysFor(components[i].name));
+                for (String alias : components[i].aliases) {
+                    if (!keys.contains(alias))
+                        keys.add(alias);
+                }
+                paths[i] = new Path[keys.size()];
+                expressions[i] = new String[keys.size()];
+                for (int k = 0; k < keys.size(); k++) {
+                    paths[i][k] = Path.newKey(keys.get(k));
+                    expressions[i][k] = paths[i][k].render();
+                }
+            }
+        }
+    }
+
+    static final class Component {
+        final String name;
+        // keys tried after those of the naming strategy
+        final String[] aliases;
+        // whether the component is left null or empty when it is missing, rather than failing validation
+        final boolean optional;
+        final Class<?> type;
+        final Type genericType;
+        final Method accessor;
+        // the record class bound from this component's config object, directly or within an Optional, or null
+        final Class<?> nestedRecord;
+        // the kind of immutable map to bind a Map component to, or null for a HashMap
+        final LookupTable.Kind lookupTable;
+
+        private Component(RecordComponent component) {
+            this.name = component.getName();
+            ConfigAlias alias = component.getAnnotation(ConfigAlias.class);
+            this.aliases = alias == null ? new String[0] : alias.value();
+            this.type = component.getType();
+            this.optional = type == Optional.class || component.isAnnotationPresent(com.typesafe.config.Optional.class);
+            this.genericType = component.getGenericType();
+            this.accessor = component.getAccessor();
+            this.nestedRecord = nestedRecordOrNull(type, genericType);
+            this.lookupTable = lookupTableOrNull(component);
+            // records declared in non-public scopes still have public accessors, but need this to be invoked
+            accessor.trySetAccessible();
+        }
+
+        private static Class<?> nestedRecordOrNull(Class<?> type, Type genericType) {
+            if (type.isRecord()) {
+                return type;
+            } else if (type == Optional.class && genericType instanceof ParameterizedType) {
+                Type element = ((ParameterizedType) genericType).getActualTypeArguments()[0];
+                if (element instanceof Class<?> && ((Class<?>) element).isRecord())
+                    return (Class<?>) element;
+            }
+            return null;
+        }
+
+        private static LookupTable.Kind lookupTableOrNull(RecordComponent component) {
+            LookupTable annotation = component.getAnnotation(LookupTable.class);
+            Class<?> type = component.getType();
+            LookupTable.Kind implied = type == CompactStringMap.class ? LookupTable.Kind.HASH
+                    : type == PrefixTrieMap.class ? LookupTable.Kind.PREFIX_TRIE
+                    : null;
+            if (annotation == null)
+                return implied;
+            if (implied == null && type != Map.class)
+                throw new ConfigRecordException.BadRecord("@LookupTable is only supported on Map components, not " + component.getName() + ": " + type);
+            if (implied != null && implied != annotation.value())
+                throw new ConfigRecordException.BadRecord("@LookupTable(" + annotation.value() + ") does not match the type of " + component.getName() + ": " + type);
+            return annotation.value();
+        }
+
+        Object valueOf(Object record) {
+            try {
+                return accessor.invoke(record);
+            } catch (ReflectiveOperationException e) {
+                throw new ConfigRecordException.BadRecord("Failed to read record component " + name + " of " + accessor.getDeclaringClass().getName(), e);
+            }
+        }
+    }
+}
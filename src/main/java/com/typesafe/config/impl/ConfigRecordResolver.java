@@ -0,0 +1,103 @@
+package com.typesafe.config.impl;
+
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigResolveOptions;
+import com.typesafe.config.ConfigValueType;
+import io.github.dkichler.config.KeyNamingStrategy;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resolves only the parts of an unresolved config that a record reads, leaving the rest of the
+ * tree, and any substitutions in it that could not be resolved, untouched.
+ */
+final class ConfigRecordResolver {
+
+    private final AbstractConfigObject root;
+    private final ConfigResolveOptions options;
+    private final KeyNamingStrategy naming;
+
+    private ConfigRecordResolver(AbstractConfigObject root, ConfigResolveOptions options, KeyNamingStrategy naming) {
+        this.root = root;
+        this.options = options;
+        this.naming = naming;
+    }
+
+    /**
+     * Returns a resolved object holding the values the record class binds from the object
+     * at the given path (or the root, where the path is null), with substitutions looked up
+     * against the whole of the root.
+     */
+    static AbstractConfigObject resolveForRecord(AbstractConfigObject root, Path path, Class<?> recordClass,
+                                                 ConfigResolveOptions options, KeyNamingStrategy naming) {
+        ConfigRecordResolver resolver = new ConfigRecordResolver(root, options, naming);
+        AbstractConfigValue scope = path == null ? root : resolver.peek(path, true);
+        if (scope == null || scope.valueType() == ConfigValueType.NULL)
+            throw new ConfigException.Missing(path.render());
+        if (!(scope instanceof AbstractConfigObject))
+            throw new ConfigException.WrongType(scope.origin(), path.render(), ConfigValueType.OBJECT.name(), scope.valueType().name());
+        if (path == null && !(scope instanceof SimpleConfigObject))
+            scope = resolver.resolve(scope, null);
+        return resolver.prune((AbstractConfigObject) scope, path, ConfigRecordPlan.forClass(recordClass));
+    }
+
+    // keeps only the entries of the scope the record binds, resolving each of them as it goes
+    private AbstractConfigObject prune(AbstractConfigObject scope, Path scopePath, ConfigRecordPlan plan) {
+        if (scope.resolveStatus() == ResolveStatus.RESOLVED)
+            return scope;
+
+        Map<String, AbstractConfigValue> entries = new HashMap<>();
+        ConfigRecordPlan.Keys keys = plan.keys(naming);
+        for (int i = 0; i < plan.components.length; i++) {
+            ConfigRecordPlan.Component component = plan.components[i];
+            for (Path keyPath : keys.paths[i]) {
+                Path childPath = scopePath == null ? keyPath : new Path(Arrays.asList(scopePath, keyPath));
+                AbstractConfigValue value;
+                if (component.nestedRecord != null) {
+                    value = peek(childPath, true);
+                    if (value instanceof AbstractConfigObject)
+                        value = prune((AbstractConfigObject) value, childPath, ConfigRecordPlan.forClass(component.nestedRecord));
+                } else {
+                    value = peek(childPath, false);
+                }
+                // same preference as Config#hasPath, which treats null as missing
+                if (value != null && value.valueType() != ConfigValueType.NULL) {
+                    entries.put(keyPath.first(), value);
+                    break;
+                }
+            }
+        }
+        return new SimpleConfigObject(scope.origin(), entries);
+    }
+
+    /**
+     * Finds the value at a path without resolving anything beside it.  The unresolved tree is
+     * walked as far as it is made of plain objects, which hold their final keys and values;
+     * anything else on the way is resolved through a substitution of the path.  Where
+     * partial is true, an object found at the path is returned even if it holds unresolved
+     * values, so the caller can pick out what it needs.
+     */
+    private AbstractConfigValue peek(Path path, boolean partial) {
+        AbstractConfigValue current = root;
+        for (Path p = path; p != null; p = p.remainder()) {
+            if (!(current instanceof SimpleConfigObject))
+                return resolve(current, path);
+            current = ((SimpleConfigObject) current).get(p.first());
+            if (current == null)
+                return null;
+        }
+        if (current.resolveStatus() == ResolveStatus.RESOLVED || (partial && current instanceof SimpleConfigObject))
+            return current;
+        return resolve(current, path);
+    }
+
+    // resolves the value at the path the same way as a ${?path} substitution would, which is null if it's undefined
+    private AbstractConfigValue resolve(AbstractConfigValue value, Path path) {
+        if (path == null)
+            return ResolveContext.resolve(value, root, options);
+        ConfigReference reference = new ConfigReference(value.origin(), new SubstitutionExpression(path, true));
+        return ResolveContext.resolve(reference, root, options);
+    }
+}
@@ -0,0 +1,150 @@
+package com.typesafe.config.impl;
+
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueType;
+import io.github.dkichler.config.CompactStringMap;
+import io.github.dkichler.config.ConfigDiscriminator;
+import io.github.dkichler.config.ConfigRecordException;
+import io.github.dkichler.config.ConfigTypeName;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The records permitted by a sealed interface, looked up by the name given under its
+ * discriminator key.  Computed once per interface and cached.
+ */
+final class ConfigRecordVariants {
+
+    private static final ConfigRecordVariants NONE = new ConfigRecordVariants();
+
+    private static final ClassValue<ConfigRecordVariants> VARIANTS = new ClassValue<>() {
+        @Override
+        protected ConfigRecordVariants computeValue(Class<?> type) {
+            return type.isInterface() && isSealed(type) ? new ConfigRecordVariants(type) : NONE;
+        }
+    };
+
+    // the discriminator key and name of a record, where it is permitted by a sealed interface
+    private static final ClassValue<String[]> NAMES = new ClassValue<>() {
+        @Override
+        protected String[] computeValue(Class<?> type) {
+            for (Class<?> parent : type.getInterfaces()) {
+                ConfigRecordVariants variants = forType(parent);
+                if (variants != null && variants.names.containsKey(type))
+                    return new String[] { variants.key, variants.names.get(type) };
+            }
+            return null;
+        }
+    };
+
+    final Class<?> sealedInterface;
+    final String key;
+    private final CompactStringMap<Class<?>> byName;
+    private final Map<Class<?>, String> names;
+
+    private ConfigRecordVariants() {
+        this.sealedInterface = null;
+        this.key = null;
+        this.byName = null;
+        this.names = null;
+    }
+
+    private ConfigRecordVariants(Class<?> sealedInterface) {
+        this.sealedInterface = sealedInterface;
+        ConfigDiscriminator discriminator = discriminatorOrNull(sealedInterface);
+        this.key = discriminator == null ? "type" : discriminator.value();
+
+        List<Class<?>> records = new ArrayList<>();
+        collectRecords(sealedInterface, records);
+        Map<String, Class<?>> byName = new LinkedHashMap<>();
+        this.names = new HashMap<>();
+        for (Class<?> record : records) {
+            ConfigTypeName typeName = record.getAnnotation(ConfigTypeName.class);
+            String name = typeName == null ? record.getSimpleName() : typeName.value();
+            Class<?> existing = byName.put(name, record);
+            if (existing != null && existing != record)
+                throw new ConfigRecordException.BadRecord("Records " + existing.getName() + " and " + record.getName()
+                        + " permitted by " + sealedInterface.getName() + " have the same name '" + name + "'");
+            names.put(record, name);
+        }
+        this.byName = CompactStringMap.copyOf(byName);
+    }
+
+    // a sealed interface permitted by another shares its discriminator, unless it names its own
+    private static ConfigDiscriminator discriminatorOrNull(Class<?> type) {
+        ConfigDiscriminator discriminator = type.getAnnotation(ConfigDiscriminator.class);
+        for (int i = 0; discriminator == null && i < type.getInterfaces().length; i++) {
+            Class<?> parent = type.getInterfaces()[i];
+            if (isSealed(parent))
+                discriminator = discriminatorOrNull(parent);
+        }
+        return discriminator;
+    }
+
+    // records permitted directly, or through sealed interfaces which are themselves permitted
+    private static void collectRecords(Class<?> sealedInterface, List<Class<?>> records) {
+        for (Class<?> permitted : permittedSubclasses(sealedInterface)) {
+            if (permitted.isRecord()) {
+                records.add(permitted);
+            } else if (permitted.isInterface() && isSealed(permitted)) {
+                collectRecords(permitted, records);
+            } else {
+                throw new ConfigRecordException.BadRecord("Unsupported subtype " + permitted.getName() + " of " + sealedInterface.getName()
+                        + ": only records and sealed interfaces can be bound");
+            }
+        }
+    }
+
+    // Sealed classes are final in Java 17 but these two methods are still preview APIs in the
+    // Java 16 this is built for, so every call goes through here to keep the warning in one place.
+    @SuppressWarnings("preview")
+    static boolean isSealed(Class<?> type) {
+        return type.isSealed();
+    }
+
+    /**
+     * @return the classes permitted by a sealed class or interface, or null if it is not sealed
+     */
+    @SuppressWarnings("preview")
+    static Class<?>[] permittedSubclasses(Class<?> type) {
+        return type.getPermittedSubclasses();
+    }
+
+    /**
+     * @return the variants of a sealed interface, or null if the type is not one
+     */
+    static ConfigRecordVariants forType(Class<?> type) {
+        ConfigRecordVariants variants = VARIANTS.get(type);
+        return variants == NONE ? null : variants;
+    }
+
+    /**
+     * @return the discriminator key and name a record is known by, or null if it is not permitted by a sealed interface
+     */
+    static String[] nameOf(Class<?> recordClass) {
+        return NAMES.get(recordClass);
+    }
+
+    /**
+     * Picks the record to bind from the name under the discriminator key of the object.
+     */
+    Class<?> select(ConfigObject object, String path) {
+        ConfigValue name = object.get(key);
+        String namePath = path + "." + key;
+        if (name == null || name.valueType() == ConfigValueType.NULL)
+            throw new ConfigException.Missing(object.origin(), namePath);
+        if (name.valueType() != ConfigValueType.STRING)
+            throw new ConfigException.WrongType(name.origin(), namePath, ConfigValueType.STRING.name(), name.valueType().name());
+        Class<?> record = byName.get((String) name.unwrapped());
+        if (record == null)
+            throw new ConfigException.BadValue(name.origin(), namePath,
+                    "Unknown " + sealedInterface.getSimpleName() + " '" + name.unwrapped() + "', should be one of " + byName.keySet());
+        return record;
+    }
+}
@@ -0,0 +1,282 @@
+package com.typesafe.config.impl;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigList;
+import com.typesafe.config.ConfigMemorySize;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueFactory;
+import io.github.dkichler.config.CompactStringMap;
+import io.github.dkichler.config.PrefixTrieMap;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Builds and caches the metadata used to bind records ahead of the first bind, and optionally
+ * binds them from synthetic configs so the code binding them is compiled.
+ */
+public class ConfigRecordWarmupImpl {
+
+    // marks a value which could not be made up, see syntheticValue
+    private static final Object NONE = new Object();
+
+    private ConfigRecordWarmupImpl() {}
+
+    public static Set<Class<? extends Record>> warmUpInternal(Collection<Class<? extends Record>> recordClasses,
+                                                              Collection<String> packages, ClassLoader classLoader, int syntheticBinds) {
+        Set<Class<? extends Record>> roots = new LinkedHashSet<>(recordClasses);
+        for (String packageName : packages) {
+            roots.addAll(scanPackage(packageName, classLoader));
+        }
+
+        // one bad record doesn't stop the others being warmed
+        RuntimeException failure = null;
+        Set<Class<?>> visited = new HashSet<>();
+        for (Class<? extends Record> recordClass : roots) {
+            try {
+                visit(recordClass, visited);
+            } catch (RuntimeException e) {
+                if (failure == null)
+                    failure = e;
+                else
+                    failure.addSuppressed(e);
+            }
+        }
+        if (failure != null)
+            throw failure;
+
+        for (Class<? extends Record> recordClass : roots) {
+            try {
+                Config synthetic = syntheticBinds > 0 ? syntheticConfig(recordClass) : null;
+                for (int i = 0; synthetic != null && i < syntheticBinds; i++) {
+                    ConfigRecordImpl.createInternal(synthetic, recordClass);
+                }
+            } catch (RuntimeException e) {
+                // the made up values may not pass the record's own validation, which is no reason to fail
+            }
+        }
+        return Collections.unmodifiableSet(roots);
+    }
+
+    // caches what binding a type looks up, for the type and every type reachable from its components
+    private static void visit(Type type, Set<Class<?>> visited) {
+        if (type instanceof ParameterizedType) {
+            visit(((ParameterizedType) type).getRawType(), visited);
+            for (Type typeArg : ((ParameterizedType) type).getActualTypeArguments()) {
+                visit(typeArg, visited);
+            }
+            return;
+        }
+        if (!(type instanceof Class<?>) || !visited.add((Class<?>) type))
+            return;
+        Class<?> clazz = (Class<?>) type;
+        if (clazz.isPrimitive() || clazz.isEnum() || clazz.getName().startsWith("java.") || clazz.getName().startsWith("com.typesafe.config."))
+            return;
+
+        ConfigRecordVariants variants = ConfigRecordVariants.forType(clazz);
+        if (variants != null) {
+            for (Class<?> permitted : ConfigRecordVariants.permittedSubclasses(clazz)) {
+                visit(permitted, visited);
+            }
+        } else if (clazz.isRecord()) {
+            ConfigRecordVariants.nameOf(clazz);
+            for (ConfigRecordPlan.Component component : ConfigRecordPlan.forClass(clazz).components) {
+                visit(component.genericType, visited);
+            }
+        }
+        // consulted for records and beans alike when binding; cached by Introspector per thread group
+        for (PropertyDescriptor property : beanProperties(clazz)) {
+            if (property.getWriteMethod() != null)
+                visit(property.getWriteMethod().getGenericParameterTypes()[0], visited);
+        }
+    }
+
+    private static PropertyDescriptor[] beanProperties(Class<?> clazz) {
+        try {
+            return Introspector.getBeanInfo(clazz).getPropertyDescriptors();
+        } catch (IntrospectionException e) {
+            return new PropertyDescriptor[0];
+        }
+    }
+
+    /**
+     * Makes up a config the record can be bound from, with a value for each component and
+     * an element in each list and map.
+     *
+     * @return the config, or null if a value can't be made up for a required component
+     */
+    static Config syntheticConfig(Class<? extends Record> recordClass) {
+        Object value = syntheticValue(recordClass, new HashSet<>());
+        if (value == NONE)
+            return null;
+        @SuppressWarnings("unchecked")
+        Map<String, Object> map = (Map<String, Object>) value;
+        return ConfigValueFactory.fromMap(map).toConfig();
+    }
+
+    // a value in the form ConfigValueFactory takes, or NONE
+    private static Object syntheticValue(Type type, Set<Class<?>> enclosing) {
+        if (type instanceof ParameterizedType) {
+            ParameterizedType paramType = (ParameterizedType) type;
+            Type raw = paramType.getRawType();
+            Type[] typeArgs = paramType.getActualTypeArguments();
+            Type elementType = typeArgs[typeArgs.length - 1];
+            if (raw == Optional.class) {
+                return syntheticValue(elementType, enclosing);
+            } else if (raw == List.class || raw == Set.class) {
+                Object element = syntheticValue(elementType, enclosing);
+                return element == NONE ? NONE : List.of(element);
+            } else if (raw == Map.class || raw == CompactStringMap.class || raw == PrefixTrieMap.class) {
+                Object element = syntheticValue(elementType, enclosing);
+                return element == NONE ? NONE : Map.of("warmup", element);
+            }
+            return NONE;
+        }
+        if (!(type instanceof Class<?>))
+            return NONE;
+
+        Class<?> clazz = (Class<?>) type;
+        if (clazz == String.class || clazz == Object.class || clazz == ConfigValue.class) {
+            return "warmup";
+        } else if (clazz == int.class || clazz == Integer.class || clazz == long.class || clazz == Long.class
+                || clazz == double.class || clazz == Double.class) {
+            return 1;
+        } else if (clazz == boolean.class || clazz == Boolean.class) {
+            return true;
+        } else if (clazz == Duration.class) {
+            return "1s";
+        } else if (clazz == ConfigMemorySize.class) {
+            return "1k";
+        } else if (clazz == Config.class || clazz == ConfigObject.class) {
+            return Map.of();
+        } else if (clazz == ConfigList.class) {
+            return List.of();
+        } else if (clazz.isEnum()) {
+            Object[] constants = clazz.getEnumConstants();
+            return constants.length == 0 ? NONE : ((Enum<?>) constants[0]).name();
+        } else if (!enclosing.add(clazz)) {
+            // only the components which are optional are left out of recursive records
+            return NONE;
+        }
+
+        try {
+            ConfigRecordVariants variants = ConfigRecordVariants.forType(clazz);
+            if (variants != null) {
+                for (Class<?> permitted : ConfigRecordVariants.permittedSubclasses(clazz)) {
+                    Object value = syntheticValue(permitted, enclosing);
+                    if (value != NONE) {
+                        if (!permitted.isRecord())
+                            return value; // a sealed interface, which has named the record it made up
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> object = new LinkedHashMap<>((Map<String, Object>) value);
+                        String[] name = ConfigRecordVariants.nameOf(permitted);
+                        object.put(name[0], name[1]);
+                        return object;
+                    }
+                }
+                return NONE;
+            } else if (clazz.isRecord()) {
+                Map<String, Object> object = new LinkedHashMap<>();
+                for (RecordComponent component : clazz.getRecordComponents()) {
+                    Object value = syntheticValue(component.getGenericType(), enclosing);
+                    if (value != NONE)
+                        object.put(component.getName(), value);
+                    else if (component.getType() != Optional.class && !component.isAnnotationPresent(com.typesafe.config.Optional.class))
+                        return NONE;
+                }
+                return object;
+            } else {
+                Map<String, Object> object = new LinkedHashMap<>();
+                for (PropertyDescriptor property : beanProperties(clazz)) {
+                    if (property.getReadMethod() == null || property.getWriteMethod() == null)
+                        continue;
+                    Object value = syntheticValue(property.getWriteMethod().getGenericParameterTypes()[0], enclosing);
+                    if (value == NONE)
+                        return NONE;
+                    object.put(property.getName(), value);
+                }
+                return object.isEmpty() ? NONE : object;
+            }
+        } finally {
+            enclosing.remove(clazz);
+        }
+    }
+
+    // records in the package and its subpackages, from directories and jars on the class path
+    static Set<Class<? extends Record>> scanPackage(String packageName, ClassLoader classLoader) {
+        String resourceName = packageName.replace('.', '/');
+        Set<String> classNames = new LinkedHashSet<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(resourceName);
+            while (resources.hasMoreElements()) {
+                URL url = resources.nextElement();
+                if (url.getProtocol().equals("file")) {
+                    Path directory = Paths.get(url.toURI());
+                    try (Stream<Path> files = Files.walk(directory)) {
+                        files.map(file -> directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/"))
+                                .forEach(file -> addClassName(classNames, resourceName + "/" + file));
+                    }
+                } else if (url.getProtocol().equals("jar")) {
+                    JarURLConnection connection = (JarURLConnection) url.openConnection();
+                    connection.setUseCaches(false);
+                    try (JarFile jar = connection.getJarFile()) {
+                        Enumeration<JarEntry> entries = jar.entries();
+                        while (entries.hasMoreElements()) {
+                            String entry = entries.nextElement().getName();
+                            if (entry.startsWith(resourceName + "/"))
+                                addClassName(classNames, entry);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to scan package " + packageName, e);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Failed to scan package " + packageName, e);
+        }
+
+        Set<Class<? extends Record>> records = new LinkedHashSet<>();
+        for (String className : classNames) {
+            try {
+                Class<?> clazz = Class.forName(className, false, classLoader);
+                if (clazz.isRecord())
+                    records.add(clazz.asSubclass(Record.class));
+            } catch (ClassNotFoundException | LinkageError e) {
+                // not loadable from here, so can't be bound either
+            }
+        }
+        return records;
+    }
+
+    private static void addClassName(Set<String> classNames, String resource) {
+        if (resource.endsWith(".class") && !resource.endsWith("module-info.class") && !resource.endsWith("package-info.class"))
+            classNames.add(resource.substring(0, resource.length() - ".class".length()).replace('/', '.'));
+    }
+}
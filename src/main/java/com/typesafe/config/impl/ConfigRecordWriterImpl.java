@@ -0,0 +1,284 @@
+package com.typesafe.config.impl;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigList;
+import com.typesafe.config.ConfigMemorySize;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigRenderOptions;
+import com.typesafe.config.ConfigValue;
+import io.github.dkichler.config.ConfigRecordException;
+import io.github.dkichler.config.ConfigRecordWriter;
+import io.github.dkichler.config.KeyNamingStrategy;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class ConfigRecordWriterImpl {
+
+    private static final String INDENT = "    ";
+
+    // the properties ConfigBeanImpl would set, in introspection order
+    private static final ClassValue<PropertyDescriptor[]> BEAN_PROPERTIES = new ClassValue<>() {
+        @Override
+        protected PropertyDescriptor[] computeValue(Class<?> type) {
+            BeanInfo beanInfo;
+            try {
+                beanInfo = Introspector.getBeanInfo(type);
+            } catch (IntrospectionException e) {
+                return new PropertyDescriptor[0];
+            }
+            List<PropertyDescriptor> properties = new ArrayList<>();
+            for (PropertyDescriptor beanProp : beanInfo.getPropertyDescriptors()) {
+                if (beanProp.getReadMethod() != null && beanProp.getWriteMethod() != null) {
+                    properties.add(beanProp);
+                }
+            }
+            return properties.toArray(new PropertyDescriptor[0]);
+        }
+    };
+
+    private final Writer writer;
+    private final boolean json;
+    private final boolean formatted;
+    private final KeyNamingStrategy keyNaming;
+
+    private ConfigRecordWriterImpl(Writer writer, ConfigRecordWriter options) {
+        this.writer = writer;
+        this.json = options.getJson();
+        this.formatted = options.getFormatted();
+        this.keyNaming = options.getKeyNamingStrategy();
+    }
+
+    public static void writeInternal(Record record, Writer writer, ConfigRecordWriter options) throws IOException {
+        ConfigRecordWriterImpl impl = new ConfigRecordWriterImpl(writer, options);
+        impl.writeRecord(record, Redaction.of(options.getRedactedPaths()), 0);
+        if (impl.formatted)
+            writer.write('\n');
+    }
+
+    private void writeRecord(Object record, Redaction redaction, int indent) throws IOException {
+        writer.write('{');
+        boolean first = true;
+        ConfigRecordPlan plan = ConfigRecordPlan.forClass(record.getClass());
+        // records bound through a sealed interface are read back by the name under its discriminator
+        String[] discriminator = ConfigRecordVariants.nameOf(record.getClass());
+        if (discriminator != null && !hasComponent(plan, discriminator[0], keyNaming)) {
+            writeKey(discriminator[0], true, indent + 1);
+            writer.write(ConfigImplUtil.renderJsonString(discriminator[1]));
+            first = false;
+        }
+        for (ConfigRecordPlan.Component component : plan.components) {
+            Object value = component.valueOf(record);
+            if (value instanceof Optional) {
+                value = ((Optional<?>) value).orElse(null);
+            }
+            // absent values are left out, so that they are read back as absent
+            if (value == null)
+                continue;
+            writeKey(keyNaming.keyFor(component.name), first, indent + 1);
+            writeValue(value, Redaction.child(redaction, component.name), indent + 1);
+            first = false;
+        }
+        endContainer('}', first, indent);
+    }
+
+    private static boolean hasComponent(ConfigRecordPlan plan, String name, KeyNamingStrategy keyNaming) {
+        for (ConfigRecordPlan.Component component : plan.components) {
+            if (component.name.equals(name) || keyNaming.keyFor(component.name).equals(name))
+                return true;
+        }
+        return false;
+    }
+
+    private void writeBean(Object bean, PropertyDescriptor[] properties, Redaction redaction, int indent) throws IOException {
+        writer.write('{');
+        boolean first = true;
+        for (PropertyDescriptor property : properties) {
+            Object value;
+            try {
+                value = property.getReadMethod().invoke(bean);
+            } catch (ReflectiveOperationException e) {
+                throw new ConfigRecordException.BadRecord("Failed to read bean property " + property.getName() + " of " + bean.getClass().getName(), e);
+            }
+            if (value == null)
+                continue;
+            String name = property.getName();
+            writeKey(name, first, indent + 1);
+            writeValue(value, Redaction.child(redaction, name), indent + 1);
+            first = false;
+        }
+        endContainer('}', first, indent);
+    }
+
+    private void writeMap(Map<?, ?> map, Redaction redaction, int indent) throws IOException {
+        writer.write('{');
+        boolean first = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            writeKey(key, first, indent + 1);
+            writeValue(entry.getValue(), Redaction.child(redaction, key), indent + 1);
+            first = false;
+        }
+        endContainer('}', first, indent);
+    }
+
+    private void writeList(Collection<?> list, Redaction redaction, int indent) throws IOException {
+        writer.write('[');
+        boolean first = true;
+        for (Object element : list) {
+            separate(first, indent + 1);
+            writeValue(element, redaction, indent + 1);
+            first = false;
+        }
+        endContainer(']', first, indent);
+    }
+
+    private void writeValue(Object value, Redaction redaction, int indent) throws IOException {
+        if (redaction != null && redaction.redacted) {
+            writer.write(ConfigImplUtil.renderJsonString(ConfigRecordWriter.REDACTED));
+        } else if (value == null) {
+            writer.write("null");
+        } else if (value instanceof String) {
+            writer.write(ConfigImplUtil.renderJsonString((String) value));
+        } else if (value instanceof Boolean) {
+            writer.write(value.toString());
+        } else if (value instanceof Double || value instanceof Float) {
+            double d = ((Number) value).doubleValue();
+            // NaN and infinities are not valid JSON numbers, but are still parsed back from strings
+            writer.write(Double.isFinite(d) ? value.toString() : ConfigImplUtil.renderJsonString(value.toString()));
+        } else if (value instanceof Number) {
+            writer.write(value.toString());
+        } else if (value instanceof Enum) {
+            writer.write(ConfigImplUtil.renderJsonString(((Enum<?>) value).name()));
+        } else if (value instanceof Duration) {
+            writer.write(ConfigImplUtil.renderJsonString(renderDuration((Duration) value)));
+        } else if (value instanceof ConfigMemorySize) {
+            writer.write(((ConfigMemorySize) value).toBytesBigInteger().toString());
+        } else if (value instanceof Config) {
+            writeConfigValue(((Config) value).root(), redaction, indent);
+        } else if (value instanceof ConfigValue) {
+            writeConfigValue((ConfigValue) value, redaction, indent);
+        } else if (value instanceof Optional) {
+            writeValue(((Optional<?>) value).orElse(null), redaction, indent);
+        } else if (value instanceof Record) {
+            writeRecord(value, redaction, indent);
+        } else if (value instanceof Map) {
+            writeMap((Map<?, ?>) value, redaction, indent);
+        } else if (value instanceof Collection) {
+            writeList((Collection<?>) value, redaction, indent);
+        } else {
+            PropertyDescriptor[] properties = BEAN_PROPERTIES.get(value.getClass());
+            if (properties.length == 0)
+                throw new ConfigRecordException.BadRecord("Unsupported type for writing: " + value.getClass());
+            writeBean(value, properties, redaction, indent);
+        }
+    }
+
+    private void writeConfigValue(ConfigValue value, Redaction redaction, int indent) throws IOException {
+        if (redaction != null && value instanceof ConfigObject) {
+            // walked like any other map, so that the paths redacted below it are; sorted as render() does
+            writeMap(new TreeMap<>((ConfigObject) value), redaction, indent);
+        } else if (redaction != null && value instanceof ConfigList) {
+            writeList((ConfigList) value, redaction, indent);
+        } else {
+            // already a config tree, so lean on its own rendering. JSON is used for HOCON too, since concise
+            // HOCON rendering leaves out the braces of a root object; kept on one line as it can't follow our indentation
+            writer.write(value.render(ConfigRenderOptions.concise()));
+        }
+    }
+
+    private void writeKey(String key, boolean first, int indent) throws IOException {
+        separate(first, indent);
+        writer.write(json ? ConfigImplUtil.renderJsonString(key) : ConfigImplUtil.renderStringUnquotedIfPossible(key));
+        if (json)
+            writer.write(formatted ? " : " : ":");
+        else
+            writer.write(formatted ? " = " : "=");
+    }
+
+    private void separate(boolean first, int indent) throws IOException {
+        // HOCON accepts a newline in place of the comma
+        if (!first && (json || !formatted))
+            writer.write(',');
+        if (formatted) {
+            writer.write('\n');
+            indent(indent);
+        }
+    }
+
+    private void endContainer(char close, boolean empty, int indent) throws IOException {
+        if (formatted && !empty) {
+            writer.write('\n');
+            indent(indent);
+        }
+        writer.write(close);
+    }
+
+    private void indent(int indent) throws IOException {
+        for (int i = 0; i < indent; i++) {
+            writer.write(INDENT);
+        }
+    }
+
+    // uses the largest unit the duration is a whole multiple of, to keep it readable
+    private static String renderDuration(Duration duration) {
+        long seconds = duration.getSeconds();
+        if (duration.getNano() == 0 && seconds != 0) {
+            if (seconds % 86400 == 0)
+                return (seconds / 86400) + "d";
+            else if (seconds % 3600 == 0)
+                return (seconds / 3600) + "h";
+            else if (seconds % 60 == 0)
+                return (seconds / 60) + "m";
+            else
+                return seconds + "s";
+        } else if (duration.getNano() % 1_000_000 == 0) {
+            return duration.toMillis() + "ms";
+        } else if (duration.getNano() % 1_000 == 0) {
+            return (duration.toNanos() / 1_000) + "us";
+        } else {
+            return duration.toNanos() + "ns";
+        }
+    }
+
+    /**
+     * Tree of the redacted paths, walked alongside the values being written.
+     */
+    private static final class Redaction {
+        private boolean redacted;
+        private Map<String, Redaction> children;
+
+        static Redaction of(Set<String> paths) {
+            if (paths.isEmpty())
+                return null;
+            Redaction root = new Redaction();
+            for (String path : paths) {
+                Redaction node = root;
+                for (String element : ConfigImplUtil.splitPath(path)) {
+                    if (node.children == null)
+                        node.children = new HashMap<>();
+                    node = node.children.computeIfAbsent(element, k -> new Redaction());
+                }
+                node.redacted = true;
+            }
+            return root;
+        }
+
+        static Redaction child(Redaction redaction, String key) {
+            return redaction == null || redaction.children == null ? null : redaction.children.get(key);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package io.github.dkichler.config;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable map from strings, built once and then only read.
+ *
+ * Entries are kept in flat arrays using open addressing with linear probing, at a load factor of
+ * at most one half, with the hash of each key stored alongside it.  A lookup is a few array reads
+ * with no entry objects to chase, and a key is only compared with <code>equals</code> when its
+ * hash matches.
+ *
+ * @param <V> the type of the values
+ * @since 0.2.0
+ */
+public final class CompactStringMap<V> extends AbstractMap<String, V> {
+
+    private static final CompactStringMap<?> EMPTY = new CompactStringMap<>(Map.of());
+
+    private final String[] keys;
+    private final Object[] values;
+    private final int[] hashes;
+    private final int mask;
+    private final int size;
+    private Set<Entry<String, V>> entrySet;
+
+    private CompactStringMap(Map<String, ? extends V> map) {
+        int capacity = Integer.highestOneBit(Math.max(map.size(), 1) * 2 - 1) << 1;
+        this.keys = new String[capacity];
+        this.values = new Object[capacity];
+        this.hashes = new int[capacity];
+        this.mask = capacity - 1;
+        this.size = map.size();
+        for (Entry<String, ? extends V> entry : map.entrySet()) {
+            String key = entry.getKey();
+            if (key == null)
+                throw new NullPointerException("CompactStringMap does not support null keys");
+            int hash = key.hashCode();
+            int index = spread(hash) & mask;
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            values[index] = entry.getValue();
+            hashes[index] = hash;
+        }
+    }
+
+    /**
+     * Returns an immutable copy of the given map.
+     *
+     * @param map the entries to copy
+     * @param <V> the type of the values
+     * @return a copy of the map, or the map itself if it already is a <code>CompactStringMap</code>
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> CompactStringMap<V> copyOf(Map<String, ? extends V> map) {
+        if (map instanceof CompactStringMap)
+            return (CompactStringMap<V>) map;
+        return map.isEmpty() ? (CompactStringMap<V>) EMPTY : new CompactStringMap<>(map);
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof String))
+            return -1;
+        int hash = key.hashCode();
+        for (int index = spread(hash) & mask; ; index = (index + 1) & mask) {
+            String candidate = keys[index];
+            if (candidate == null)
+                return -1;
+            if (hashes[index] == hash && (candidate == key || candidate.equals(key)))
+                return index;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int index = indexOf(key);
+        return index < 0 ? null : (V) values[index];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(Object key, V defaultValue) {
+        int index = indexOf(key);
+        return index < 0 ? defaultValue : (V) values[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super String, ? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != null)
+                action.accept(keys[i], (V) values[i]);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        if (entrySet == null)
+            entrySet = new EntrySet();
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Entry<String, V>> iterator() {
+            return new Iterator<>() {
+                private int next = advance(0);
+
+                private int advance(int from) {
+                    while (from < keys.length && keys[from] == null) {
+                        from++;
+                    }
+                    return from;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next < keys.length;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public Entry<String, V> next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    Entry<String, V> entry = new SimpleImmutableEntry<>(keys[next], (V) values[next]);
+                    next = advance(next + 1);
+                    return entry;
+                }
+            };
+        }
+    }
+}
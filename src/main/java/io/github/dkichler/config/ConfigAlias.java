@@ -0,0 +1,32 @@
+package io.github.dkichler.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Gives a record component more keys to be bound from, tried in turn after the keys of
+ * the {@link KeyNamingStrategy}.  Useful for keeping old keys working after a rename.
+ *
+ * <pre>
+ * public record PoolConfig(
+ *     &#64;ConfigAlias({"max-connections", "MAX_CONNECTIONS"}) int maxPoolSize
+ * ) {}
+ * </pre>
+ *
+ * Each alias is a single key, not a path, so it may contain dots.
+ *
+ * @since 0.2.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface ConfigAlias {
+
+    /**
+     * @return the keys to try, in order of preference
+     */
+    String[] value();
+}
@@ -0,0 +1,33 @@
+package io.github.dkichler.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Names the config key which selects the record to bind for a component typed as a sealed
+ * interface.  Without this annotation the key is <code>type</code>.
+ *
+ * <pre>
+ * &#64;ConfigDiscriminator("kind")
+ * public sealed interface Stage permits Source, Sink {}
+ *
+ * &#64;ConfigTypeName("source")
+ * public record Source(String topic) implements Stage {}
+ * </pre>
+ *
+ * @see ConfigTypeName
+ * @since 0.2.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ConfigDiscriminator {
+
+    /**
+     * @return the key holding the name of the record to bind
+     */
+    String value() default "type";
+}
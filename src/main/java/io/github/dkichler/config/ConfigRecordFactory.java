@@ -2,6 +2,7 @@ package io.github.dkichler.config;
 
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigResolveOptions;
 import com.typesafe.config.impl.ConfigRecordImpl;
 
 /**
@@ -47,4 +48,132 @@ public class ConfigRecordFactory {
     public static <T extends Record> T create(Config config, Class<T> clazz) {
         return ConfigRecordImpl.createInternal(config, clazz);
     }
+
+    /**
+     * Creates an instance of a record, as {@link #create(Config,Class)} does, with
+     * the config keys for its fields given by a {@link KeyNamingStrategy} rather than
+     * the default of camel case falling back to kebab case.  The strategy applies to
+     * records nested in the record too.
+     *
+     * <pre>
+     * FooConfig config = ConfigRecordFactory.create(ConfigFactory.systemEnvironment(), FooConfig.class,
+     *     KeyNamingStrategy.SCREAMING_SNAKE_CASE);
+     * </pre>
+     *
+     * @since 0.2.0
+     *
+     * @param config source of config information
+     * @param clazz record class to be instantiated
+     * @param naming maps record field names to config keys
+     * @param <T> the type of the record to be instantiated
+     * @return an instance of the record populated with data from the config
+     * @throws ConfigRecordException.BadRecord
+     *     If something goes wrong attempting to construct the record
+     * @throws ConfigException.ValidationFailed
+     *     If the config doesn't conform to the record's implied schema
+     * @throws ConfigException
+     *     Can throw the same exceptions as the getters on <code>Config</code>
+     */
+    public static <T extends Record> T create(Config config, Class<T> clazz, KeyNamingStrategy naming) {
+        return ConfigRecordImpl.createInternal(config, clazz, naming);
+    }
+
+    /**
+     * Creates an instance of a record from a {@link Config} which has not been
+     * resolved, resolving only the values the record reads.
+     *
+     * This is the same as {@link #createPartiallyResolved(Config,String,Class,ConfigResolveOptions)}
+     * with the record bound from the root of the config and default resolve options.
+     *
+     * @since 0.2.0
+     *
+     * @param config source of config information, which need not be resolved
+     * @param clazz record class to be instantiated
+     * @param <T> the type of the record to be instantiated
+     * @return an instance of the record populated with data from the config
+     */
+    public static <T extends Record> T createPartiallyResolved(Config config, Class<T> clazz) {
+        return ConfigRecordImpl.createPartiallyResolvedInternal(config, null, clazz, ConfigResolveOptions.defaults(), KeyNamingStrategy.DEFAULT);
+    }
+
+    /**
+     * Same as {@link #createPartiallyResolved(Config,String,Class,ConfigResolveOptions)}
+     * with default resolve options.
+     *
+     * @since 0.2.0
+     *
+     * @param config source of config information, which need not be resolved
+     * @param path path of the object in the config to bind the record from
+     * @param clazz record class to be instantiated
+     * @param <T> the type of the record to be instantiated
+     * @return an instance of the record populated with data from the config
+     */
+    public static <T extends Record> T createPartiallyResolved(Config config, String path, Class<T> clazz) {
+        return ConfigRecordImpl.createPartiallyResolvedInternal(config, path, clazz, ConfigResolveOptions.defaults(), KeyNamingStrategy.DEFAULT);
+    }
+
+    /**
+     * Creates an instance of a record from the object at a path of a {@link Config}
+     * which has not been resolved.
+     *
+     * Where {@link #create(Config,Class)} requires the whole config to be resolved
+     * first, this resolves only the values the record (and any records nested in it)
+     * reads, with substitutions looked up against the whole config.  Substitutions
+     * elsewhere are never evaluated, so they may be expensive, or even impossible to
+     * resolve, without affecting the record.  This is intended for binding small records
+     * out of a large application config, where <code>path</code> would be the record's
+     * section, e.g.
+     *
+     * <pre>
+     * Config unresolved = ConfigFactory.defaultOverrides()
+     *     .withFallback(ConfigFactory.defaultApplication())
+     *     .withFallback(ConfigFactory.defaultReference());
+     * FooConfig config = ConfigRecordFactory.createPartiallyResolved(unresolved, "foo", FooConfig.class);
+     * </pre>
+     *
+     * An object made up from substitutions, such as <code>foo = ${defaults} { bar = 1 }</code>,
+     * is resolved as a whole when the record reads anything from it.
+     *
+     * Where the config is already resolved, this is the same as
+     * <code>create(config.getConfig(path), clazz)</code>.
+     *
+     * @since 0.2.0
+     *
+     * @param config source of config information, which need not be resolved
+     * @param path path of the object in the config to bind the record from
+     * @param clazz record class to be instantiated
+     * @param options options used to resolve the values the record reads
+     * @param <T> the type of the record to be instantiated
+     * @return an instance of the record populated with data from the config
+     * @throws ConfigRecordException.BadRecord
+     *     If something goes wrong attempting to construct the record
+     * @throws ConfigException.ValidationFailed
+     *     If the config doesn't conform to the record's implied schema
+     * @throws ConfigException.UnresolvedSubstitution
+     *     If a value the record reads refers to a path that does not exist
+     * @throws ConfigException
+     *     Can throw the same exceptions as the getters on <code>Config</code>
+     */
+    public static <T extends Record> T createPartiallyResolved(Config config, String path, Class<T> clazz, ConfigResolveOptions options) {
+        return ConfigRecordImpl.createPartiallyResolvedInternal(config, path, clazz, options, KeyNamingStrategy.DEFAULT);
+    }
+
+    /**
+     * Same as {@link #createPartiallyResolved(Config,String,Class,ConfigResolveOptions)},
+     * with the config keys for the record's fields given by a {@link KeyNamingStrategy}.
+     *
+     * @since 0.2.0
+     *
+     * @param config source of config information, which need not be resolved
+     * @param path path of the object in the config to bind the record from
+     * @param clazz record class to be instantiated
+     * @param options options used to resolve the values the record reads
+     * @param naming maps record field names to config keys
+     * @param <T> the type of the record to be instantiated
+     * @return an instance of the record populated with data from the config
+     */
+    public static <T extends Record> T createPartiallyResolved(Config config, String path, Class<T> clazz,
+                                                               ConfigResolveOptions options, KeyNamingStrategy naming) {
+        return ConfigRecordImpl.createPartiallyResolvedInternal(config, path, clazz, options, naming);
+    }
 }
@@ -0,0 +1,253 @@
+package io.github.dkichler.config;
+
+import com.typesafe.config.Config;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Holds the current instance of a config record, for code which reads it often while it is
+ * replaced on reload.
+ *
+ * Reads are a single volatile load and never block.  Each record published gets a version
+ * one higher than the one it replaced, and listeners are called on the publishing thread,
+ * after the new record is visible to readers.
+ *
+ * <pre>
+ * ConfigRecordRef&lt;FooConfig&gt; ref = ConfigRecordRef.create(config, FooConfig.class);
+ * ref.addListener((previous, current) -&gt; log.info("foo config now at version " + current.version()));
+ *
+ * // on the hot path
+ * FooConfig foo = ref.get();
+ *
+ * // on reload; only one of several concurrent triggers binds the new config
+ * long seen = ref.version();
+ * ref.compareAndRebind(seen, () -&gt; ConfigFactory.load().getConfig("foo"));
+ * </pre>
+ *
+ * @param <T> the type of the record held
+ * @since 0.2.0
+ */
+public final class ConfigRecordRef<T extends Record> {
+
+    /**
+     * A record together with the version it was published as.
+     *
+     * @param value the record
+     * @param version the version of the record, starting at 1 for the first one held
+     * @param <T> the type of the record
+     */
+    public record Snapshot<T extends Record>(T value, long version) {
+    }
+
+    /**
+     * Called after a new record has been published.
+     *
+     * @param <T> the type of the record
+     */
+    @FunctionalInterface
+    public interface Listener<T extends Record> {
+        /**
+         * Called on the thread which published the new record.  Where records are published
+         * concurrently, calls for different versions may overlap or arrive out of order;
+         * use the versions to tell which is newer.
+         *
+         * An exception thrown from here is passed to the uncaught exception handler of the
+         * publishing thread rather than thrown to the publisher, as the record has already
+         * been published by then, and the other listeners are still called.
+         *
+         * @param previous the record which was replaced
+         * @param current the record which replaced it
+         */
+        void onChange(Snapshot<T> previous, Snapshot<T> current);
+    }
+
+    private final Class<T> recordClass;
+    private final KeyNamingStrategy naming;
+    private final AtomicReference<Snapshot<T>> current;
+    private final AtomicBoolean rebinding = new AtomicBoolean();
+    private final List<Listener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    private ConfigRecordRef(Class<T> recordClass, KeyNamingStrategy naming, T initial) {
+        this.recordClass = recordClass;
+        this.naming = naming;
+        this.current = new AtomicReference<>(new Snapshot<>(initial, 1));
+    }
+
+    /**
+     * Creates a reference holding a record bound from the given config with
+     * {@link ConfigRecordFactory#create(Config,Class)}.
+     *
+     * @param config source of config information
+     * @param clazz record class to be instantiated
+     * @param <T> the type of the record to be instantiated
+     * @return a reference holding the record, at version 1
+     */
+    public static <T extends Record> ConfigRecordRef<T> create(Config config, Class<T> clazz) {
+        return create(config, clazz, KeyNamingStrategy.DEFAULT);
+    }
+
+    /**
+     * Creates a reference holding a record bound from the given config with
+     * {@link ConfigRecordFactory#create(Config,Class,KeyNamingStrategy)}, which is rebound
+     * with the same strategy.
+     *
+     * @param config source of config information
+     * @param clazz record class to be instantiated
+     * @param naming maps record component names to config keys
+     * @param <T> the type of the record to be instantiated
+     * @return a reference holding the record, at version 1
+     */
+    public static <T extends Record> ConfigRecordRef<T> create(Config config, Class<T> clazz, KeyNamingStrategy naming) {
+        return new ConfigRecordRef<>(clazz, naming, ConfigRecordFactory.create(config, clazz, naming));
+    }
+
+    /**
+     * Creates a reference holding a record which has already been bound.
+     *
+     * @param clazz record class to bind on {@link #rebind(Config)}
+     * @param initial the record to hold
+     * @param <T> the type of the record
+     * @return a reference holding the record, at version 1
+     */
+    public static <T extends Record> ConfigRecordRef<T> of(Class<T> clazz, T initial) {
+        return of(clazz, initial, KeyNamingStrategy.DEFAULT);
+    }
+
+    /**
+     * Creates a reference holding a record which has already been bound, which is rebound
+     * with the given strategy.
+     *
+     * @param clazz record class to bind on {@link #rebind(Config)}
+     * @param initial the record to hold
+     * @param naming maps record component names to config keys on rebind
+     * @param <T> the type of the record
+     * @return a reference holding the record, at version 1
+     */
+    public static <T extends Record> ConfigRecordRef<T> of(Class<T> clazz, T initial, KeyNamingStrategy naming) {
+        return new ConfigRecordRef<>(clazz, naming, initial);
+    }
+
+    /**
+     * @return the current record
+     */
+    public T get() {
+        return current.get().value();
+    }
+
+    /**
+     * @return the version of the current record
+     */
+    public long version() {
+        return current.get().version();
+    }
+
+    /**
+     * Returns the current record and its version, read together.
+     *
+     * @return the current snapshot
+     */
+    public Snapshot<T> snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Replaces the current record, whatever its version, and calls the listeners.
+     *
+     * @param value the new record
+     * @return the snapshot published
+     */
+    public Snapshot<T> publish(T value) {
+        Snapshot<T> previous;
+        Snapshot<T> next;
+        do {
+            previous = current.get();
+            next = new Snapshot<>(value, previous.version() + 1);
+        } while (!current.compareAndSet(previous, next));
+        notifyListeners(previous, next);
+        return next;
+    }
+
+    /**
+     * Binds a record from the given config, with the naming strategy the reference was
+     * created with, and publishes it.
+     *
+     * @param config source of config information
+     * @return the snapshot published
+     * @throws com.typesafe.config.ConfigException
+     *     If the record can't be bound, in which case the current record is kept
+     */
+    public Snapshot<T> rebind(Config config) {
+        return publish(ConfigRecordFactory.create(config, recordClass, naming));
+    }
+
+    /**
+     * Binds a record from the supplied config and publishes it, only if the current
+     * version is still the expected one.
+     *
+     * Only one call binds at a time: a call made while another is binding returns
+     * <code>false</code> straight away, without calling its supplier, as does a call
+     * whose expected version is out of date.  The listeners are called once binding is
+     * over, so a call made from a listener, or while one runs, binds as any other.  A record published by {@link #publish(Record)}
+     * while binding is not overwritten.
+     *
+     * @param expectedVersion the version the caller last saw
+     * @param config supplies the source of config information
+     * @return true if the record was bound and published
+     * @throws com.typesafe.config.ConfigException
+     *     If the record can't be bound, in which case the current record is kept
+     */
+    public boolean compareAndRebind(long expectedVersion, Supplier<? extends Config> config) {
+        if (current.get().version() != expectedVersion || !rebinding.compareAndSet(false, true))
+            return false;
+        Snapshot<T> previous;
+        Snapshot<T> next;
+        try {
+            previous = current.get();
+            if (previous.version() != expectedVersion)
+                return false;
+            next = new Snapshot<>(ConfigRecordFactory.create(config.get(), recordClass, naming), expectedVersion + 1);
+            if (!current.compareAndSet(previous, next))
+                return false;
+        } finally {
+            // binding is over once published, so a listener, or anyone else, may rebind from the new version
+            rebinding.set(false);
+        }
+        notifyListeners(previous, next);
+        return true;
+    }
+
+    /**
+     * Adds a listener called whenever a new record is published.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(Listener<T> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addListener(Listener)}.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(Listener<T> listener) {
+        listeners.remove(listener);
+    }
+
+    // every listener is called even if one throws; failures go to the thread's handler, since the
+    // record is published by now and the publisher has nothing to undo
+    private void notifyListeners(Snapshot<T> previous, Snapshot<T> next) {
+        for (Listener<T> listener : listeners) {
+            try {
+                listener.onChange(previous, next);
+            } catch (RuntimeException e) {
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+    }
+}
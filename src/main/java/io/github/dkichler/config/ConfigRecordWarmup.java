@@ -0,0 +1,191 @@
+package io.github.dkichler.config;
+
+import com.typesafe.config.impl.ConfigRecordWarmupImpl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Prepares record classes for binding ahead of time, so that the first
+ * {@link ConfigRecordFactory#create(com.typesafe.config.Config,Class)} of each does not
+ * pay for reflection, bean introspection and cold code.  See {@link #start()}.
+ *
+ * <pre>
+ * ConfigRecordWarmup.defaults()
+ *     .setPackages("com.example.config")
+ *     .setSyntheticBinds(1000)
+ *     .start();
+ * </pre>
+ *
+ * Instances are immutable; each setter returns a modified copy, in the same way as
+ * {@link com.typesafe.config.ConfigRenderOptions}.
+ *
+ * @since 0.2.0
+ */
+public final class ConfigRecordWarmup {
+
+    private final Set<Class<? extends Record>> recordClasses;
+    private final Set<String> packages;
+    private final ClassLoader classLoader;
+    private final int syntheticBinds;
+
+    private ConfigRecordWarmup(Set<Class<? extends Record>> recordClasses, Set<String> packages, ClassLoader classLoader, int syntheticBinds) {
+        this.recordClasses = recordClasses;
+        this.packages = packages;
+        this.classLoader = classLoader;
+        this.syntheticBinds = syntheticBinds;
+    }
+
+    /**
+     * Returns a warm-up with no record classes or packages, scanning with the class
+     * loader of this class and running no synthetic binds.
+     *
+     * @return the default warm-up
+     */
+    public static ConfigRecordWarmup defaults() {
+        return new ConfigRecordWarmup(Collections.emptySet(), Collections.emptySet(), ConfigRecordWarmup.class.getClassLoader(), 0);
+    }
+
+    /**
+     * Returns a copy of this warm-up which prepares the given record classes, along with
+     * the records, sealed interfaces and beans they are bound from.
+     *
+     * @param classes the record classes to prepare
+     * @return a new warm-up
+     */
+    @SafeVarargs
+    public final ConfigRecordWarmup setRecordClasses(Class<? extends Record>... classes) {
+        // copied element by element, as handing the array on to another method is what javac warns of
+        Set<Class<? extends Record>> copy = new LinkedHashSet<>();
+        for (Class<? extends Record> recordClass : classes) {
+            copy.add(recordClass);
+        }
+        return new ConfigRecordWarmup(Collections.unmodifiableSet(copy), packages, classLoader, syntheticBinds);
+    }
+
+    /**
+     * Same as {@link #setRecordClasses(Class...)}.
+     *
+     * @param classes the record classes to prepare
+     * @return a new warm-up
+     */
+    public ConfigRecordWarmup setRecordClasses(Collection<Class<? extends Record>> classes) {
+        return new ConfigRecordWarmup(Collections.unmodifiableSet(new LinkedHashSet<>(classes)), packages, classLoader, syntheticBinds);
+    }
+
+    /**
+     * @return the record classes to prepare
+     */
+    public Set<Class<? extends Record>> getRecordClasses() {
+        return recordClasses;
+    }
+
+    /**
+     * Returns a copy of this warm-up which also prepares every record found in the given
+     * packages and their subpackages, in directories or jars of the class loader.  Packages
+     * are found through their directory entries, which jars built by the <code>jar</code>
+     * tool, sbt or Maven include.
+     *
+     * @param packageNames names of the packages to scan, such as <code>com.example.config</code>
+     * @return a new warm-up
+     */
+    public ConfigRecordWarmup setPackages(String... packageNames) {
+        return new ConfigRecordWarmup(recordClasses, Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(packageNames))), classLoader, syntheticBinds);
+    }
+
+    /**
+     * @return the packages scanned for records
+     */
+    public Set<String> getPackages() {
+        return packages;
+    }
+
+    /**
+     * Returns a copy of this warm-up which scans packages with the given class loader.
+     *
+     * @param value the class loader to find and load records with
+     * @return a new warm-up
+     */
+    public ConfigRecordWarmup setClassLoader(ClassLoader value) {
+        return new ConfigRecordWarmup(recordClasses, packages, value, syntheticBinds);
+    }
+
+    /**
+     * @return the class loader packages are scanned with
+     */
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * Returns a copy of this warm-up which binds each record the given number of times
+     * from a made up config, so that the JIT compiles the code binding it.  Records with
+     * a required component that no value can be made up for are not bound.
+     *
+     * @param value the number of binds per record, or 0 for none
+     * @return a new warm-up
+     */
+    public ConfigRecordWarmup setSyntheticBinds(int value) {
+        if (value < 0)
+            throw new IllegalArgumentException("syntheticBinds must not be negative: " + value);
+        return new ConfigRecordWarmup(recordClasses, packages, classLoader, value);
+    }
+
+    /**
+     * @return the number of synthetic binds per record
+     */
+    public int getSyntheticBinds() {
+        return syntheticBinds;
+    }
+
+    /**
+     * Prepares the records on a new daemon thread, named <code>config-record-warmup</code>.
+     *
+     * @return completes with the record classes prepared, or with the first failure of
+     *     {@link #run()}
+     */
+    public CompletableFuture<Set<Class<? extends Record>>> start() {
+        return start(task -> {
+            Thread thread = new Thread(task, "config-record-warmup");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    /**
+     * Prepares the records on the given executor.
+     *
+     * @param executor runs the warm-up
+     * @return completes with the record classes prepared, or with the first failure of
+     *     {@link #run()}
+     */
+    public CompletableFuture<Set<Class<? extends Record>>> start(Executor executor) {
+        return CompletableFuture.supplyAsync(this::run, executor);
+    }
+
+    /**
+     * Prepares the records on the calling thread.
+     *
+     * Every record is prepared even if some fail, in which case the first failure is
+     * thrown with the rest suppressed.  Only what is checked when a record's metadata is
+     * built fails here; a component of a type that can't be bound, such as a class with no
+     * bean properties, is not detected until the record is created, and a synthetic bind
+     * which fails is ignored.
+     *
+     * @return the record classes prepared
+     * @throws ConfigRecordException.BadRecord
+     *     If one of the records, or a type reachable from it, is malformed, such as a
+     *     sealed interface permitting a class or a {@link LookupTable} on a component which
+     *     is not a map
+     * @throws java.io.UncheckedIOException
+     *     If a package can not be scanned
+     */
+    public Set<Class<? extends Record>> run() {
+        return ConfigRecordWarmupImpl.warmUpInternal(recordClasses, packages, classLoader, syntheticBinds);
+    }
+}
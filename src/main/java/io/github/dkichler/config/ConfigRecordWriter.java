@@ -0,0 +1,198 @@
+package io.github.dkichler.config;
+
+import com.typesafe.config.impl.ConfigRecordWriterImpl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Writes a record back out as HOCON or JSON, the reverse of {@link ConfigRecordFactory}.
+ * See {@link #write(Record,Writer)}.
+ *
+ * Instances are immutable; each setter returns a modified copy, in the same way as
+ * {@link com.typesafe.config.ConfigRenderOptions}.
+ *
+ * @since 0.2.0
+ */
+public final class ConfigRecordWriter {
+
+    /**
+     * Placeholder written in place of the value of a redacted field.
+     */
+    public static final String REDACTED = "<redacted>";
+
+    private final boolean json;
+    private final boolean formatted;
+    private final KeyNamingStrategy keyNaming;
+    private final Set<String> redactedPaths;
+
+    private ConfigRecordWriter(boolean json, boolean formatted, KeyNamingStrategy keyNaming, Set<String> redactedPaths) {
+        this.json = json;
+        this.formatted = formatted;
+        this.keyNaming = keyNaming;
+        this.redactedPaths = redactedPaths;
+    }
+
+    /**
+     * Returns a writer producing formatted HOCON, with keys named by
+     * {@link KeyNamingStrategy#DEFAULT}, which are the record component names, and
+     * nothing redacted.
+     *
+     * @return the default writer
+     */
+    public static ConfigRecordWriter defaults() {
+        return new ConfigRecordWriter(false, true, KeyNamingStrategy.DEFAULT, Collections.emptySet());
+    }
+
+    /**
+     * Returns a copy of this writer producing JSON rather than HOCON.
+     *
+     * @param value true to write JSON
+     * @return a new writer
+     */
+    public ConfigRecordWriter setJson(boolean value) {
+        return new ConfigRecordWriter(value, formatted, keyNaming, redactedPaths);
+    }
+
+    /**
+     * @return whether JSON is written rather than HOCON
+     */
+    public boolean getJson() {
+        return json;
+    }
+
+    /**
+     * Returns a copy of this writer which either indents its output over
+     * multiple lines, or writes everything on a single line.
+     *
+     * @param value true to indent the output
+     * @return a new writer
+     */
+    public ConfigRecordWriter setFormatted(boolean value) {
+        return new ConfigRecordWriter(json, value, keyNaming, redactedPaths);
+    }
+
+    /**
+     * @return whether the output is indented over multiple lines
+     */
+    public boolean getFormatted() {
+        return formatted;
+    }
+
+    /**
+     * Returns a copy of this writer which writes each record component under the key the
+     * given strategy maps its name to, so that a record bound with
+     * {@link ConfigRecordFactory#create(com.typesafe.config.Config,Class,KeyNamingStrategy)}
+     * is written back out with the same keys.  For example with
+     * {@link KeyNamingStrategy#KEBAB_CASE}, <code>fooBar</code> is written as <code>foo-bar</code>.
+     *
+     * @param value the strategy naming the keys written
+     * @return a new writer
+     */
+    public ConfigRecordWriter setKeyNamingStrategy(KeyNamingStrategy value) {
+        return new ConfigRecordWriter(json, formatted, Objects.requireNonNull(value, "value"), redactedPaths);
+    }
+
+    /**
+     * @return the strategy naming the keys record components are written under
+     */
+    public KeyNamingStrategy getKeyNamingStrategy() {
+        return keyNaming;
+    }
+
+    /**
+     * Returns a copy of this writer which writes {@link #REDACTED} in place of the
+     * value at each of the given paths.  Paths are made of record component names
+     * (or map keys) joined with a dot, relative to the record being written, for
+     * example <code>database.password</code>.
+     *
+     * @param paths paths of the values to redact
+     * @return a new writer
+     */
+    public ConfigRecordWriter setRedactedPaths(String... paths) {
+        return setRedactedPaths(new LinkedHashSet<>(Arrays.asList(paths)));
+    }
+
+    /**
+     * Same as {@link #setRedactedPaths(String...)}.
+     *
+     * @param paths paths of the values to redact
+     * @return a new writer
+     */
+    public ConfigRecordWriter setRedactedPaths(Set<String> paths) {
+        return new ConfigRecordWriter(json, formatted, keyNaming, Collections.unmodifiableSet(new LinkedHashSet<>(paths)));
+    }
+
+    /**
+     * @return paths of the values which are redacted
+     */
+    public Set<String> getRedactedPaths() {
+        return redactedPaths;
+    }
+
+    /**
+     * Writes a record to a {@link Writer}, without an intermediate
+     * {@link com.typesafe.config.ConfigValue} tree.
+     *
+     * Component values may be any of the types supported by
+     * {@link ConfigRecordFactory#create(com.typesafe.config.Config,Class)}.  Absent
+     * optional components (empty or <code>null</code>) are omitted.
+     *
+     * The writer is not flushed or closed.
+     *
+     * @param record the record to write
+     * @param writer destination of the output
+     * @throws IOException if the writer fails
+     * @throws ConfigRecordException.BadRecord
+     *     If the record holds a value that can not be written as config
+     */
+    public void write(Record record, Writer writer) throws IOException {
+        ConfigRecordWriterImpl.writeInternal(record, writer, this);
+    }
+
+    /**
+     * Writes a record to an {@link OutputStream} as UTF-8.  The stream is flushed
+     * but not closed.
+     *
+     * @param record the record to write
+     * @param out destination of the output
+     * @throws IOException if the stream fails
+     * @throws ConfigRecordException.BadRecord
+     *     If the record holds a value that can not be written as config
+     */
+    public void write(Record record, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        write(record, writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes a record to a string.
+     *
+     * @param record the record to write
+     * @return the record as HOCON or JSON
+     * @throws ConfigRecordException.BadRecord
+     *     If the record holds a value that can not be written as config
+     */
+    public String render(Record record) {
+        StringWriter writer = new StringWriter();
+        try {
+            write(record, writer);
+        } catch (IOException e) {
+            // StringWriter does not throw
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.dkichler.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Names a record permitted by a sealed interface, as it is given under the interface's
+ * {@link ConfigDiscriminator} key.  Without this annotation the name is the simple name of
+ * the record class.
+ *
+ * @see ConfigDiscriminator
+ * @since 0.2.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ConfigTypeName {
+
+    /**
+     * @return the name of the record
+     */
+    String value();
+}
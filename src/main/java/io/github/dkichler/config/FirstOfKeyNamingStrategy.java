@@ -0,0 +1,46 @@
+package io.github.dkichler.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * See {@link KeyNamingStrategy#firstOf(KeyNamingStrategy...)}.  Equal to another made from
+ * the same strategies, so that the keys worked out for one are reused for the next.
+ */
+final class FirstOfKeyNamingStrategy implements KeyNamingStrategy {
+
+    private final List<KeyNamingStrategy> delegates;
+
+    FirstOfKeyNamingStrategy(List<KeyNamingStrategy> delegates) {
+        if (delegates.isEmpty())
+            throw new IllegalArgumentException("firstOf needs at least one strategy");
+        this.delegates = delegates;
+    }
+
+    @Override
+    public String keyFor(String componentName) {
+        return delegates.get(0).keyFor(componentName);
+    }
+
+    @Override
+    public List<String> keysFor(String componentName) {
+        List<String> keys = new ArrayList<>();
+        for (KeyNamingStrategy delegate : delegates) {
+            for (String key : delegate.keysFor(componentName)) {
+                if (!keys.contains(key))
+                    keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof FirstOfKeyNamingStrategy && delegates.equals(((FirstOfKeyNamingStrategy) other).delegates);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegates.hashCode();
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.dkichler.config;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps the name of a record component to the config key it is bound from.
+ *
+ * The keys for each component are worked out the first time a record class is bound with
+ * a strategy and kept with the class, so a strategy should always give the same keys for the
+ * same name.  They are kept for the strategy instance, or for an equal one, so a strategy
+ * should be a constant rather than made anew for each bind; those made by
+ * {@link #firstOf(KeyNamingStrategy...)} are equal when made from the same strategies.
+ *
+ * <pre>
+ * MyConfig config = ConfigRecordFactory.create(envConfig, MyConfig.class, KeyNamingStrategy.SCREAMING_SNAKE_CASE);
+ * </pre>
+ *
+ * @see ConfigAlias
+ * @since 0.2.0
+ */
+@FunctionalInterface
+public interface KeyNamingStrategy {
+
+    /**
+     * Keys named the same as the component, such as <code>maxPoolSize</code>.
+     */
+    KeyNamingStrategy CAMEL_CASE = name -> name;
+
+    /**
+     * Lower case keys with words separated by hyphens, such as <code>max-pool-size</code>.
+     */
+    KeyNamingStrategy KEBAB_CASE = name -> separateWords(name, '-', false);
+
+    /**
+     * Lower case keys with words separated by underscores, such as <code>max_pool_size</code>.
+     */
+    KeyNamingStrategy SNAKE_CASE = name -> separateWords(name, '_', false);
+
+    /**
+     * Upper case keys with words separated by underscores, such as <code>MAX_POOL_SIZE</code>,
+     * as found in configs taken from environment variables.
+     */
+    KeyNamingStrategy SCREAMING_SNAKE_CASE = name -> separateWords(name, '_', true);
+
+    /**
+     * The camel case key, or where that is missing the kebab case key.
+     */
+    KeyNamingStrategy DEFAULT = firstOf(CAMEL_CASE, KEBAB_CASE);
+
+    /**
+     * @param componentName the name of a record component
+     * @return the key to bind the component from
+     */
+    String keyFor(String componentName);
+
+    /**
+     * Returns the keys to try in turn when binding a component, the first of which that
+     * is set in the config is bound.
+     *
+     * @param componentName the name of a record component
+     * @return the keys to try, in order of preference
+     */
+    default List<String> keysFor(String componentName) {
+        return List.of(keyFor(componentName));
+    }
+
+    /**
+     * Returns a strategy which tries the keys of each of the given strategies in turn.
+     * For example, <code>firstOf(CAMEL_CASE, SCREAMING_SNAKE_CASE)</code> binds
+     * <code>maxPoolSize</code> from <code>MAX_POOL_SIZE</code> where there is no
+     * <code>maxPoolSize</code>.
+     *
+     * @param strategies the strategies, in order of preference
+     * @return the combined strategy
+     */
+    static KeyNamingStrategy firstOf(KeyNamingStrategy... strategies) {
+        return new FirstOfKeyNamingStrategy(List.copyOf(Arrays.asList(strategies)));
+    }
+
+    // splits fooBar and foo1Bar before the B, but not URLPath, so as to match how keys have always been mapped
+    private static String separateWords(String name, char separator, boolean upperCase) {
+        StringBuilder key = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (i > 0 && c >= 'A' && c <= 'Z') {
+                char previous = name.charAt(i - 1);
+                if ((previous >= 'a' && previous <= 'z') || (previous >= '0' && previous <= '9'))
+                    key.append(separator);
+            }
+            key.append(upperCase ? Character.toUpperCase(c) : Character.toLowerCase(c));
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.dkichler.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a <code>Map&lt;String, V&gt;</code> record component to an immutable map built for
+ * fast lookups, rather than a {@link java.util.HashMap}.  Intended for maps which are read
+ * far more often than they are bound, such as routing or feature flag tables.
+ *
+ * <pre>
+ * public record RoutingConfig(
+ *     &#64;LookupTable Map&lt;String, Integer&gt; limits,
+ *     &#64;LookupTable(LookupTable.Kind.PREFIX_TRIE) Map&lt;String, String&gt; routes
+ * ) {}
+ * </pre>
+ *
+ * Components declared as {@link CompactStringMap} or {@link PrefixTrieMap} are bound to
+ * that kind of map without the annotation.
+ *
+ * @since 0.2.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface LookupTable {
+
+    /**
+     * @return the kind of map to bind
+     */
+    Kind value() default Kind.HASH;
+
+    /**
+     * The kinds of map available.
+     */
+    enum Kind {
+        /**
+         * A {@link CompactStringMap}, for exact key lookups.
+         */
+        HASH,
+        /**
+         * A {@link PrefixTrieMap}, which also finds the value of the longest key
+         * that a string starts with.
+         */
+        PREFIX_TRIE
+    }
+}
@@ -0,0 +1,237 @@
+package io.github.dkichler.config;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable map from strings which, besides exact lookups, finds the entry with the longest key
+ * that a given string starts with.  See {@link #longestPrefixMatch(String)}.
+ *
+ * Keys are held in a radix trie: each node is reached by a run of characters shared by all the
+ * keys below it, and its children are found by binary search on their first character.  Lookups
+ * do not allocate.
+ *
+ * @param <V> the type of the values
+ * @since 0.2.0
+ */
+public final class PrefixTrieMap<V> extends AbstractMap<String, V> {
+
+    private final Node root;
+    // entries in key order, for iteration
+    private final String[] keys;
+    private final Object[] values;
+    private Set<Entry<String, V>> entrySet;
+
+    private PrefixTrieMap(Map<String, ? extends V> map) {
+        this.keys = map.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        this.values = new Object[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            values[i] = map.get(keys[i]);
+        }
+        this.root = build("", 0, keys.length, 0);
+    }
+
+    /**
+     * Returns an immutable copy of the given map.
+     *
+     * @param map the entries to copy
+     * @param <V> the type of the values
+     * @return a copy of the map, or the map itself if it already is a <code>PrefixTrieMap</code>
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> PrefixTrieMap<V> copyOf(Map<String, ? extends V> map) {
+        if (map instanceof PrefixTrieMap)
+            return (PrefixTrieMap<V>) map;
+        return new PrefixTrieMap<>(map);
+    }
+
+    // builds the node for the sorted keys in [from, to), which all share their first depth characters
+    private Node build(String segment, int from, int to, int depth) {
+        Node node = new Node(segment);
+        if (from < to && keys[from].length() == depth) {
+            node.entry = from;
+            from++;
+        }
+        int childCount = 0;
+        for (int i = from; i < to; i = endOfGroup(i, to, depth)) {
+            childCount++;
+        }
+        node.firstChars = new char[childCount];
+        node.children = new Node[childCount];
+        int child = 0;
+        for (int i = from; i < to; ) {
+            int end = endOfGroup(i, to, depth);
+            // sorted, so the first and last keys of the group share the longest common prefix of all of it
+            int shared = commonPrefixLength(keys[i], keys[end - 1]);
+            node.firstChars[child] = keys[i].charAt(depth);
+            node.children[child] = build(keys[i].substring(depth, shared), i, end, shared);
+            child++;
+            i = end;
+        }
+        return node;
+    }
+
+    private int endOfGroup(int from, int to, int depth) {
+        char first = keys[from].charAt(depth);
+        int end = from + 1;
+        while (end < to && keys[end].charAt(depth) == first) {
+            end++;
+        }
+        return end;
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Finds the value of the longest key which is a prefix of the given string.  For
+     * example, with keys <code>/api</code> and <code>/api/users</code>, the string
+     * <code>/api/users/42</code> finds the value of <code>/api/users</code>.
+     *
+     * @param string the string to look up
+     * @return the value of the longest matching key, or null if no key is a prefix of the string
+     */
+    @SuppressWarnings("unchecked")
+    public V longestPrefixMatch(String string) {
+        int entry = longestPrefixEntryIndex(string);
+        return entry < 0 ? null : (V) values[entry];
+    }
+
+    /**
+     * Finds the entry with the longest key which is a prefix of the given string.
+     *
+     * @param string the string to look up
+     * @return the matching entry, or null if no key is a prefix of the string
+     */
+    @SuppressWarnings("unchecked")
+    public Entry<String, V> longestPrefixEntry(String string) {
+        int entry = longestPrefixEntryIndex(string);
+        return entry < 0 ? null : new SimpleImmutableEntry<>(keys[entry], (V) values[entry]);
+    }
+
+    private int longestPrefixEntryIndex(String string) {
+        Node node = root;
+        int best = node.entry;
+        int position = 0;
+        while (position < string.length()) {
+            node = node.child(string, position);
+            if (node == null)
+                break;
+            position += node.segment.length();
+            if (node.entry >= 0)
+                best = node.entry;
+        }
+        return best;
+    }
+
+    private int entryIndex(Object key) {
+        if (!(key instanceof String))
+            return -1;
+        String string = (String) key;
+        Node node = root;
+        int position = 0;
+        while (position < string.length()) {
+            node = node.child(string, position);
+            if (node == null)
+                return -1;
+            position += node.segment.length();
+        }
+        return node.entry;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int entry = entryIndex(key);
+        return entry < 0 ? null : (V) values[entry];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return entryIndex(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super String, ? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            action.accept(keys[i], (V) values[i]);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        if (entrySet == null)
+            entrySet = new EntrySet();
+        return entrySet;
+    }
+
+    private static final class Node {
+        // characters leading from the parent to this node
+        final String segment;
+        char[] firstChars;
+        Node[] children;
+        // index of the entry whose key ends at this node, or -1
+        int entry = -1;
+
+        Node(String segment) {
+            this.segment = segment;
+        }
+
+        // the child whose segment the string continues with at the given position
+        Node child(String string, int position) {
+            int index = Arrays.binarySearch(firstChars, string.charAt(position));
+            if (index < 0)
+                return null;
+            Node child = children[index];
+            return string.startsWith(child.segment, position) ? child : null;
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, V>> {
+        @Override
+        public int size() {
+            return keys.length;
+        }
+
+        @Override
+        public Iterator<Entry<String, V>> iterator() {
+            return new Iterator<>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < keys.length;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public Entry<String, V> next() {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    Entry<String, V> entry = new SimpleImmutableEntry<>(keys[next], (V) values[next]);
+                    next++;
+                    return entry;
+                }
+            };
+        }
+    }
+}
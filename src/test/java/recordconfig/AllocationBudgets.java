@@ -0,0 +1,9 @@
+package recordconfig;
+
+import java.util.Map;
+
+public record AllocationBudgets(
+    double tolerance,
+    Map<String, Long> bytesPerCreate
+) {
+}
@@ -0,0 +1,10 @@
+package recordconfig;
+
+import io.github.dkichler.config.LookupTable;
+
+import java.util.List;
+
+public record BadLookupTableConfig(
+    @LookupTable List<String> notAMap
+) {
+}
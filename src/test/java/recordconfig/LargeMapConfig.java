@@ -0,0 +1,8 @@
+package recordconfig;
+
+import java.util.Map;
+
+public record LargeMapConfig(
+    Map<String, Integer> entries
+) {
+}
@@ -0,0 +1,18 @@
+package recordconfig;
+
+import io.github.dkichler.config.CompactStringMap;
+import io.github.dkichler.config.LookupTable;
+import io.github.dkichler.config.PrefixTrieMap;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+public record LookupTablesConfig(
+    @LookupTable Map<String, Boolean> flags,
+    @LookupTable(LookupTable.Kind.PREFIX_TRIE) Map<String, String> routes,
+    CompactStringMap<Duration> timeouts,
+    PrefixTrieMap<StringsConfig> handlers,
+    @com.typesafe.config.Optional @LookupTable Map<String, Integer> missing
+) {
+}
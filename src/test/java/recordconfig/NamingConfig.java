@@ -0,0 +1,13 @@
+package recordconfig;
+
+import io.github.dkichler.config.ConfigAlias;
+
+import java.time.Duration;
+import java.util.Optional;
+
+public record NamingConfig(
+    int maxPoolSize,
+    @ConfigAlias({"timeout", "request.timeout"}) Duration requestTimeout,
+    Optional<StringsConfig> nestedStrings
+) {
+}
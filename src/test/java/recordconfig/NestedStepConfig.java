@@ -0,0 +1,13 @@
+package recordconfig;
+
+public record NestedStepConfig(NestedStepConfig.Step step) {
+
+    // the first subtype permitted is itself a sealed interface
+    public sealed interface Step permits NestedStepConfig.Transform, NestedStepConfig.Log {}
+
+    public sealed interface Transform extends Step permits NestedStepConfig.Rename {}
+
+    public record Rename(String from, String to) implements Transform {}
+
+    public record Log(String message) implements Step {}
+}
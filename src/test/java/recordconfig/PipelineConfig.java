@@ -0,0 +1,7 @@
+package recordconfig;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public record PipelineConfig(Stage first, List<Stage> stages, Map<String, Stage> named, Optional<Stage> fallback) {}
@@ -0,0 +1,15 @@
+package recordconfig;
+
+import java.time.Duration;
+
+// scalar components whose keys have digits in them
+public record PortsConfig(
+    int http2Port,
+    int http3Port,
+    long ipv4Limit,
+    double s3Ratio,
+    boolean ipv6,
+    String s3Bucket,
+    Duration ttl2
+) {
+}
@@ -0,0 +1,25 @@
+package recordconfig;
+
+import io.github.dkichler.config.ConfigDiscriminator;
+import io.github.dkichler.config.ConfigTypeName;
+
+import java.time.Duration;
+import java.util.List;
+
+@ConfigDiscriminator("kind")
+public sealed interface Stage {
+
+    @ConfigTypeName("source")
+    record Source(String topic, int partitions) implements Stage {}
+
+    @ConfigTypeName("filter")
+    record Filter(String expression) implements Stage {}
+
+    @ConfigTypeName("sink")
+    record Sink(String topic, Duration flushInterval) implements Stage {}
+
+    // permitted through a nested sealed interface, which shares the discriminator key, and named by its class
+    sealed interface Composite extends Stage {}
+
+    record Fanout(List<String> targets) implements Composite {}
+}
@@ -0,0 +1,10 @@
+package recordconfig;
+
+public record UnsupportedStageConfig(Step step) {
+
+    public sealed interface Step permits UnsupportedStageConfig.Named, UnsupportedStageConfig.Other {}
+
+    public record Named(String name) implements Step {}
+
+    public static final class Other implements Step {}
+}
@@ -0,0 +1,100 @@
+package com.typesafe.config.impl
+
+import com.typesafe.config._
+import io.github.dkichler.config.ConfigRecordFactory
+import org.junit.Assert._
+import org.junit._
+import recordconfig._
+
+import java.lang.management.ManagementFactory
+import scala.jdk.CollectionConverters.MapHasAsJava
+
+/**
+ * Fails the build when binding a record allocates noticeably more than the budget checked in to
+ * recordconfig/allocation-budgets.conf.  Allocation is measured with the per-thread counter of the
+ * JVM, which is exact enough to compare against once the binding code has been warmed up.
+ */
+class ConfigRecordAllocationTest extends TestUtils {
+
+    private val threadMXBean = ManagementFactory.getThreadMXBean.asInstanceOf[com.sun.management.ThreadMXBean]
+
+    private val budgets: AllocationBudgets = ConfigRecordFactory.create(
+        ConfigFactory.parseResources("recordconfig/allocation-budgets.conf").resolve, classOf[AllocationBudgets])
+
+    @Before
+    def requireAllocationCounter(): Unit = {
+        Assume.assumeTrue("thread allocation counter unavailable",
+            threadMXBean.isThreadAllocatedMemorySupported && threadMXBean.isThreadAllocatedMemoryEnabled)
+    }
+
+    @Test
+    def testArraysAllocation(): Unit = {
+        checkBudget("arrays", loadConfig().getConfig("arrays"), classOf[ArraysConfig], 2000, 1000)
+    }
+
+    @Test
+    def testMapsAllocation(): Unit = {
+        checkBudget("maps", loadConfig().getConfig("maps"), classOf[MapsConfig], 2000, 1000)
+    }
+
+    @Test
+    def testOptionalsAllocation(): Unit = {
+        checkBudget("optionals", loadConfig().getConfig("optionals"), classOf[OptionalsConfig], 2000, 1000)
+    }
+
+    @Test
+    def testScalarsAllocation(): Unit = {
+        val config = ConfigFactory.parseString(
+            "http2Port = 443, http3Port = 443, ipv4-limit = 10, s3-ratio = 0.5, ipv6 = true, s3-bucket = b, ttl2 = 2s")
+        checkBudget("scalars", config, classOf[PortsConfig], 2000, 1000)
+    }
+
+    @Test
+    def testLargeMapAllocation(): Unit = {
+        checkBudget("large-map", largeMapConfig(10000), classOf[LargeMapConfig], 50, 20)
+    }
+
+    // The cost of each entry on its own, which a change to the per-entry work shows up in far more
+    // than in the cost of the whole map.
+    @Test
+    def testMapEntryAllocation(): Unit = {
+        val small = measure(largeMapConfig(100), classOf[LargeMapConfig], 2000, 1000)
+        val large = measure(largeMapConfig(10000), classOf[LargeMapConfig], 50, 20)
+        assertWithinBudget("map-entry", (large.bytes - small.bytes) / (10000 - 100), large.nanos / 10000)
+    }
+
+    private def largeMapConfig(size: Int): Config = {
+        val entries = (0 until size).map(i => s"key-$i" -> Integer.valueOf(i)).toMap.asJava
+        ConfigFactory.empty().withValue("entries", ConfigValueFactory.fromMap(entries))
+    }
+
+    private def checkBudget[T <: Record](name: String, config: Config, clazz: Class[T], warmups: Int, iterations: Int): Unit = {
+        val measured = measure(config, clazz, warmups, iterations)
+        assertWithinBudget(name, measured.bytes, measured.nanos)
+    }
+
+    private def measure[T <: Record](config: Config, clazz: Class[T], warmups: Int, iterations: Int): Measurement = {
+        for (_ <- 0 until warmups) {
+            ConfigRecordFactory.create(config, clazz)
+        }
+
+        val threadId = Thread.currentThread().getId
+        val start = System.nanoTime()
+        val before = threadMXBean.getThreadAllocatedBytes(threadId)
+        for (_ <- 0 until iterations) {
+            ConfigRecordFactory.create(config, clazz)
+        }
+        val allocated = (threadMXBean.getThreadAllocatedBytes(threadId) - before) / iterations
+        Measurement(allocated, (System.nanoTime() - start) / iterations)
+    }
+
+    private def assertWithinBudget(name: String, allocated: Long, nanos: Long): Unit = {
+        val budget = budgets.bytesPerCreate.get(name)
+        assertNotNull("no allocation budget for " + name, budget)
+        val limit = (budget * (1 + budgets.tolerance)).toLong
+        assertTrue(s"$name allocated $allocated bytes per create (${nanos}ns), budget is $budget bytes + ${budgets.tolerance * 100}%",
+            allocated <= limit)
+    }
+}
+
+private case class Measurement(bytes: Long, nanos: Long)
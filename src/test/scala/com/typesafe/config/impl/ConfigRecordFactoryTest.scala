@@ -3,7 +3,7 @@ package com.typesafe.config.impl
 
 import com.typesafe.config._
 import io.github.dkichler.config.ConfigRecordException.BadRecord
-import io.github.dkichler.config.{ConfigRecordException, ConfigRecordFactory}
+import io.github.dkichler.config.{CompactStringMap, ConfigRecordException, ConfigRecordFactory, KeyNamingStrategy, PrefixTrieMap}
 import org.junit.Assert._
 import org.junit._
 import recordconfig.EnumsConfig.{Problem, Solution}
@@ -13,13 +13,12 @@ import java.io.{InputStream, InputStreamReader}
 import java.time.Duration
 import scala.collection.Seq
 import scala.jdk.CollectionConverters.{IterableHasAsScala, ListHasAsScala, MapHasAsJava, SeqHasAsJava, SetHasAsJava, SetHasAsScala}
-import scala.reflect.{ClassTag, classTag}
 
 /**
  * This test class is defined in com.typesafe.config.impl in order to access some of the internals of
  * the original library to ensure valid tests
  */
-class ConfigRecordFactoryTest {
+class ConfigRecordFactoryTest extends TestUtils {
 
     @Test
     def testCreate(): Unit = {
@@ -63,6 +62,74 @@ class ConfigRecordFactoryTest {
         assertTrue("unresolved substitution error", e.getMessage.contains("need to Config#resolve() a config before using it"))
     }
 
+    @Test
+    def testPartiallyResolved(): Unit = {
+        val conf =
+            """
+              |shared { a = "x" }
+              |app {
+              |  abcd = ${shared.a}
+              |  yes = "y"${shared.a}
+              |  unused = ${does.not.exist}
+              |}
+              |other = ${does.not.exist.either}
+              |""".stripMargin
+        val recordConfig = ConfigRecordFactory.createPartiallyResolved(parseConfig(conf), "app", classOf[StringsConfig])
+        assertEquals(new StringsConfig("x", "yx"), recordConfig)
+    }
+
+    @Test
+    def testPartiallyResolvedNestedRecord(): Unit = {
+        val conf =
+            """
+              |defaults { intVal = 1, intObj = 2, longVal = 3, longObj = 4, doubleVal = 5, doubleObj = 6 }
+              |numbers = ${defaults} { intVal = 10 }
+              |other = { abcd = "a", yes = ${?NOT_A_REAL_ENV_VAR}, unused = ${nope} }
+              |""".stripMargin
+        val recordConfig = ConfigRecordFactory.createPartiallyResolved(parseConfig(conf), classOf[TestRecordConfig])
+        assertEquals(new NumbersConfig(10, 2, 3L, 4L, 5.0, 6.0), recordConfig.numbers)
+    }
+
+    @Test
+    def testPartiallyResolvedOptionalSubstitution(): Unit = {
+        val conf =
+            """
+              |app {
+              |  valueObject {
+              |    optionalValue = ${?NOT_A_REAL_ENV_VAR}
+              |    mandatoryValue = ${?NOT_A_REAL_ENV_VAR}
+              |    mandatory-value = "fromKebab"
+              |    Default = ${app.valueObject.mandatory-value}
+              |  }
+              |}
+              |""".stripMargin
+        val recordConfig = ConfigRecordFactory.createPartiallyResolved(parseConfig(conf), "app", classOf[ObjectsConfig])
+        assertNull(recordConfig.valueObject.optionalValue)
+        assertEquals("fromKebab", recordConfig.valueObject.mandatoryValue)
+        assertEquals("fromKebab", recordConfig.valueObject.Default.get)
+    }
+
+    @Test
+    def testPartiallyResolvedMissingSubstitution(): Unit = {
+        val e = intercept[ConfigException.UnresolvedSubstitution] {
+            ConfigRecordFactory.createPartiallyResolved(parseConfig("app { abcd = ${nope}, yes = y }"), "app", classOf[StringsConfig])
+        }
+        assertTrue("error about the right substitution", e.getMessage.contains("nope"))
+    }
+
+    @Test
+    def testPartiallyResolvedMissingPath(): Unit = {
+        intercept[ConfigException.Missing] {
+            ConfigRecordFactory.createPartiallyResolved(parseConfig("app { abcd = ${nope}, yes = y }"), "other", classOf[StringsConfig])
+        }
+    }
+
+    @Test
+    def testPartiallyResolvedAlreadyResolved(): Unit = {
+        val recordConfig = ConfigRecordFactory.createPartiallyResolved(loadConfig(), "strings", classOf[StringsConfig])
+        assertEquals(new StringsConfig("abcd", "yes"), recordConfig)
+    }
+
     @Test
     def testCreateBool(): Unit = {
         val recordConfig: BooleansConfig = ConfigRecordFactory.create(loadConfig().getConfig("booleans"), classOf[BooleansConfig])
@@ -187,6 +254,101 @@ class ConfigRecordFactoryTest {
         assertEquals("yes", recordConfig.bazBar)
     }
 
+    @Test
+    def testKeyNamingStrategies(): Unit = {
+        assertEquals("foo-bar", KeyNamingStrategy.KEBAB_CASE.keyFor("fooBar"))
+        assertEquals("foo1-bar", KeyNamingStrategy.KEBAB_CASE.keyFor("foo1Bar"))
+        assertEquals("urlpath", KeyNamingStrategy.KEBAB_CASE.keyFor("URLPath"))
+        assertEquals("max_pool_size", KeyNamingStrategy.SNAKE_CASE.keyFor("maxPoolSize"))
+        assertEquals("MAX_POOL_SIZE", KeyNamingStrategy.SCREAMING_SNAKE_CASE.keyFor("maxPoolSize"))
+        assertEquals(List("maxPoolSize", "max-pool-size").asJava, KeyNamingStrategy.DEFAULT.keysFor("maxPoolSize"))
+        assertEquals(List("value").asJava, KeyNamingStrategy.DEFAULT.keysFor("value"))
+    }
+
+    @Test
+    def testKeyNamingStrategy(): Unit = {
+        val expected = new NamingConfig(3, Duration.ofSeconds(1), java.util.Optional.of(new StringsConfig("a", "y")))
+        val snake = "max_pool_size = 3, request_timeout = 1s, nested_strings { abcd = a, yes = y }"
+        assertEquals(expected, ConfigRecordFactory.create(parseConfig(snake).resolve, classOf[NamingConfig], KeyNamingStrategy.SNAKE_CASE))
+        val screaming = "MAX_POOL_SIZE = 3, REQUEST_TIMEOUT = 1s, NESTED_STRINGS { ABCD = a, YES = y }"
+        assertEquals(expected, ConfigRecordFactory.create(parseConfig(screaming).resolve, classOf[NamingConfig], KeyNamingStrategy.SCREAMING_SNAKE_CASE))
+        // keys are only tried for the strategy given
+        val e = intercept[ConfigException.ValidationFailed] {
+            ConfigRecordFactory.create(parseConfig(snake).resolve, classOf[NamingConfig])
+        }
+        assertTrue(e.getMessage, e.getMessage.contains("No setting at 'maxPoolSize'"))
+    }
+
+    @Test
+    def testKeyNamingStrategyFirstOf(): Unit = {
+        val naming = KeyNamingStrategy.firstOf(KeyNamingStrategy.CAMEL_CASE, KeyNamingStrategy.SCREAMING_SNAKE_CASE)
+        val recordConfig = ConfigRecordFactory.create(
+            parseConfig("maxPoolSize = 1, MAX_POOL_SIZE = 2, REQUEST_TIMEOUT = 1s").resolve, classOf[NamingConfig], naming)
+        assertEquals(1, recordConfig.maxPoolSize)
+        assertEquals(Duration.ofSeconds(1), recordConfig.requestTimeout)
+        assertFalse(recordConfig.nestedStrings.isPresent)
+    }
+
+    @Test
+    def testKeysKeptPerNamingStrategy(): Unit = {
+        val plan = ConfigRecordPlan.forClass(classOf[NamingConfig])
+        // alternating strategies each keep their keys
+        val snake = plan.keys(KeyNamingStrategy.SNAKE_CASE)
+        val screaming = plan.keys(KeyNamingStrategy.SCREAMING_SNAKE_CASE)
+        assertSame(snake, plan.keys(KeyNamingStrategy.SNAKE_CASE))
+        assertSame(screaming, plan.keys(KeyNamingStrategy.SCREAMING_SNAKE_CASE))
+        // as do strategies made inline by firstOf
+        def inline = KeyNamingStrategy.firstOf(KeyNamingStrategy.CAMEL_CASE, KeyNamingStrategy.SCREAMING_SNAKE_CASE)
+        assertEquals(inline, inline)
+        assertNotEquals(inline, KeyNamingStrategy.firstOf(KeyNamingStrategy.SCREAMING_SNAKE_CASE, KeyNamingStrategy.CAMEL_CASE))
+        assertSame(plan.keys(inline), plan.keys(inline))
+    }
+
+    @Test
+    def testCustomKeyNamingStrategy(): Unit = {
+        val conf = "app.maxpoolsize = 4, app.timeout = 1m"
+        val recordConfig = ConfigRecordFactory.create(parseConfig(conf).resolve.getConfig("app"), classOf[NamingConfig], _.toLowerCase)
+        assertEquals(4, recordConfig.maxPoolSize)
+        assertEquals(Duration.ofMinutes(1), recordConfig.requestTimeout)
+        // switching strategies for the same record
+        assertEquals(4, ConfigRecordFactory.create(parseConfig("MAX_POOL_SIZE = 4, REQUEST_TIMEOUT = 1m").resolve,
+            classOf[NamingConfig], KeyNamingStrategy.SCREAMING_SNAKE_CASE).maxPoolSize)
+    }
+
+    @Test
+    def testConfigAlias(): Unit = {
+        assertEquals(Duration.ofSeconds(2), ConfigRecordFactory.create(
+            parseConfig("max-pool-size = 1, timeout = 2s").resolve, classOf[NamingConfig]).requestTimeout)
+        // an alias is a single key, even with a dot in it
+        assertEquals(Duration.ofSeconds(3), ConfigRecordFactory.create(
+            parseConfig("max-pool-size = 1, \"request.timeout\" = 3s").resolve, classOf[NamingConfig]).requestTimeout)
+        // the keys of the strategy come first
+        assertEquals(Duration.ofSeconds(4), ConfigRecordFactory.create(
+            parseConfig("max-pool-size = 1, timeout = 2s, request-timeout = 4s").resolve, classOf[NamingConfig]).requestTimeout)
+        // and is named in errors as it was looked up
+        val e = intercept[ConfigException.BadValue] {
+            ConfigRecordFactory.create(parseConfig("max-pool-size = 1, \"request.timeout\" = soon").resolve, classOf[NamingConfig])
+        }
+        assertTrue(e.getMessage, e.getMessage.contains("'\"request.timeout\"'"))
+        val outOfRange = intercept[ConfigException.WrongType] {
+            ConfigRecordFactory.create(parseConfig("max-pool-size = 10000000000, timeout = 1s").resolve, classOf[NamingConfig])
+        }
+        assertTrue(outOfRange.getMessage, outOfRange.getMessage.contains("max-pool-size"))
+    }
+
+    @Test
+    def testPartiallyResolvedKeyNamingStrategy(): Unit = {
+        val conf =
+            """
+              |defaults { SIZE = 5 }
+              |app { MAX_POOL_SIZE = ${defaults.SIZE}, timeout = 1s, NESTED_STRINGS { ABCD = ${defaults.SIZE}, YES = y } }
+              |other = ${nope}
+              |""".stripMargin
+        val recordConfig = ConfigRecordFactory.createPartiallyResolved(parseConfig(conf), "app", classOf[NamingConfig],
+            ConfigResolveOptions.defaults, KeyNamingStrategy.SCREAMING_SNAKE_CASE)
+        assertEquals(new NamingConfig(5, Duration.ofSeconds(1), java.util.Optional.of(new StringsConfig("5", "y"))), recordConfig)
+    }
+
     @Test
     def testValues(): Unit = {
         val recordConfig = ConfigRecordFactory.create(loadConfig().getConfig("values"), classOf[ValuesConfig])
@@ -273,6 +435,105 @@ class ConfigRecordFactoryTest {
         assertEquals(new StringsConfig("b", "y"), recordConfig.mapOfRecord.get("two"))
     }
 
+    @Test
+    def testMapValueWrongType(): Unit = {
+        val wrongType = intercept[ConfigException.WrongType] {
+            ConfigRecordFactory.create(parseConfig("entries { a = 1, \"b.c\" = nope }"), classOf[LargeMapConfig])
+        }
+        assertTrue(wrongType.getMessage, wrongType.getMessage.contains("\"b.c\""))
+        val outOfRange = intercept[ConfigException.WrongType] {
+            ConfigRecordFactory.create(parseConfig("entries { a = 10000000000 }"), classOf[LargeMapConfig])
+        }
+        assertTrue(outOfRange.getMessage, outOfRange.getMessage.contains("out-of-range"))
+    }
+
+    @Test
+    def testLookupTables(): Unit = {
+        val conf =
+            """
+              |flags { a = true, b = false }
+              |routes { "/api" = api, "/api/users" = users, "example.com" = example }
+              |timeouts { fast = 10ms, slow = 10s, "a.b" = 1s }
+              |handlers { "/" { abcd = root, yes = y }, "/admin" { abcd = admin, yes = y }, "/v1.0" { abcd = v1, yes = y } }
+              |""".stripMargin
+        val recordConfig = ConfigRecordFactory.create(parseConfig(conf).resolve, classOf[LookupTablesConfig])
+        assertTrue(recordConfig.flags.isInstanceOf[CompactStringMap[_]])
+        assertEquals(Map("a" -> true, "b" -> false).asJava, recordConfig.flags)
+        assertTrue(recordConfig.routes.isInstanceOf[PrefixTrieMap[_]])
+        assertEquals("users", recordConfig.routes.asInstanceOf[PrefixTrieMap[String]].longestPrefixMatch("/api/users/42"))
+        // map keys containing dots are single keys, not paths
+        assertEquals("example", recordConfig.routes.get("example.com"))
+        assertEquals(Duration.ofSeconds(10), recordConfig.timeouts.get("slow"))
+        assertEquals(Duration.ofSeconds(1), recordConfig.timeouts.get("a.b"))
+        assertEquals(new StringsConfig("v1", "y"), recordConfig.handlers.longestPrefixMatch("/v1.0/users"))
+        assertEquals(new StringsConfig("admin", "y"), recordConfig.handlers.longestPrefixMatch("/admin/users"))
+        assertEquals(new StringsConfig("root", "y"), recordConfig.handlers.longestPrefixMatch("/users"))
+        assertNull(recordConfig.missing)
+    }
+
+    @Test
+    def testLookupTableNotAMap(): Unit = {
+        val e = intercept[BadRecord] {
+            ConfigRecordFactory.create(parseConfig("notAMap = [a]"), classOf[BadLookupTableConfig])
+        }
+        assertTrue(e.getMessage.contains("@LookupTable is only supported on Map components"))
+    }
+
+    @Test
+    def testSealedInterfaces(): Unit = {
+        val conf =
+            """
+              |first { kind = source, topic = in, partitions = 3 }
+              |stages = [
+              |  { kind = filter, expression = "x > 1" }
+              |  { kind = Fanout, targets = [a, b] }
+              |  { kind = sink, topic = out, flush-interval = 5s }
+              |]
+              |named { audit { kind = sink, topic = audit, flushInterval = 1m } }
+              |""".stripMargin
+        val recordConfig = ConfigRecordFactory.create(parseConfig(conf).resolve, classOf[PipelineConfig])
+        assertEquals(new Stage.Source("in", 3), recordConfig.first)
+        assertEquals(List(
+            new Stage.Filter("x > 1"),
+            new Stage.Fanout(List("a", "b").asJava),
+            new Stage.Sink("out", Duration.ofSeconds(5))).asJava, recordConfig.stages)
+        assertEquals(Map("audit" -> new Stage.Sink("audit", Duration.ofMinutes(1))).asJava, recordConfig.named)
+        assertFalse(recordConfig.fallback.isPresent)
+
+        val withFallback = ConfigRecordFactory.create(
+            parseConfig(conf + "fallback { kind = filter, expression = true }").resolve, classOf[PipelineConfig])
+        assertEquals(new Stage.Filter("true"), withFallback.fallback.get)
+    }
+
+    @Test
+    def testSealedInterfaceUnknownName(): Unit = {
+        val e = intercept[ConfigException.BadValue] {
+            ConfigRecordFactory.create(parseConfig("first { kind = nope }, stages = [], named {}").resolve, classOf[PipelineConfig])
+        }
+        assertTrue(e.getMessage, e.getMessage.contains("first.kind"))
+        assertTrue(e.getMessage, e.getMessage.contains("Unknown Stage 'nope', should be one of"))
+        assertTrue(e.getMessage, e.getMessage.contains("source"))
+    }
+
+    @Test
+    def testSealedInterfaceMissingDiscriminator(): Unit = {
+        val e = intercept[ConfigException.Missing] {
+            ConfigRecordFactory.create(parseConfig("first { kind = filter, expression = a }, stages = [{ topic = out }], named {}").resolve, classOf[PipelineConfig])
+        }
+        assertTrue(e.getMessage, e.getMessage.contains("stages.0.kind"))
+        intercept[ConfigException.ValidationFailed] {
+            ConfigRecordFactory.create(parseConfig("first = filter, stages = [], named {}").resolve, classOf[PipelineConfig])
+        }
+    }
+
+    @Test
+    def testSealedInterfaceNotARecord(): Unit = {
+        val e = intercept[BadRecord] {
+            ConfigRecordFactory.create(parseConfig("step { type = Named, name = a }").resolve, classOf[UnsupportedStageConfig])
+        }
+        assertTrue(e.getMessage, e.getMessage.contains("only records and sealed interfaces can be bound"))
+    }
+
     @Test
     def testBeanConfig(): Unit = {
         val recordConfig = ConfigRecordFactory.create(loadConfig(), classOf[BeanConfig])
@@ -376,18 +637,6 @@ class ConfigRecordFactoryTest {
         assertTrue(e.getMessage.contains("unsupportedOptionalValue"))
     }
 
-    private def loadConfig(): Config = {
-        val configIs: InputStream = this.getClass().getClassLoader().getResourceAsStream("recordconfig/recordconfig01.conf")
-        try {
-            val config: Config = ConfigFactory.parseReader(new InputStreamReader(configIs),
-              ConfigParseOptions.defaults.setSyntax(ConfigSyntax.CONF)).resolve
-          config
-        } finally {
-          configIs.close()
-        }
-    }
-
-
     protected def checkValidationException(e: ConfigException.ValidationFailed, expecteds: Seq[Problem]): Unit = {
         val problems = e.problems().asScala.toIndexedSeq.sortBy(_.path).sortBy(_.origin.lineNumber)
 
@@ -398,26 +647,6 @@ class ConfigRecordFactoryTest {
             expecteds.size, problems.size)
     }
 
-    protected def intercept[E <: Throwable: ClassTag](block: => Any): E = {
-        val expectedClass = classTag[E].runtimeClass
-        var thrown: Option[Throwable] = None
-        val result = try {
-            Some(block)
-        } catch {
-            case t: Throwable =>
-                thrown = Some(t)
-                None
-        }
-        thrown match {
-            case Some(t) if expectedClass.isAssignableFrom(t.getClass) =>
-                t.asInstanceOf[E]
-            case Some(t) =>
-                throw new Exception(s"Expected exception ${expectedClass.getName} was not thrown, got $t", t)
-            case None =>
-                throw new Exception(s"Expected exception ${expectedClass.getName} was not thrown, no exception was thrown and got result $result")
-        }
-    }
-
     sealed abstract class Problem(path: String, line: Int) {
         def check(p: ConfigException.ValidationProblem): Unit = {
             assertEquals("matching path", path, p.path())
@@ -461,11 +690,4 @@ class ConfigRecordFactoryTest {
         SimpleConfigOrigin.newSimple("fake origin")
     }
 
-    protected def parseConfig(s: String) = {
-        val options = ConfigParseOptions.defaults().
-          setOriginDescription("test string").
-          setSyntax(ConfigSyntax.CONF);
-        ConfigFactory.parseString(s, options).asInstanceOf[SimpleConfig]
-    }
-
 }
@@ -0,0 +1,172 @@
+package com.typesafe.config.impl
+
+import com.typesafe.config._
+import io.github.dkichler.config.{ConfigRecordRef, KeyNamingStrategy}
+import io.github.dkichler.config.ConfigRecordRef.Snapshot
+import org.junit.Assert._
+import org.junit._
+import recordconfig._
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.{CountDownLatch, CopyOnWriteArrayList, Executors, TimeUnit}
+import scala.jdk.CollectionConverters.ListHasAsScala
+
+class ConfigRecordRefTest extends TestUtils {
+
+    @Test
+    def testCreate(): Unit = {
+        val ref = ConfigRecordRef.create(ConfigFactory.parseString("abcd = a, yes = y"), classOf[StringsConfig])
+        assertEquals(new StringsConfig("a", "y"), ref.get)
+        assertEquals(1L, ref.version)
+        assertEquals(new Snapshot(new StringsConfig("a", "y"), 1L), ref.snapshot)
+    }
+
+    @Test
+    def testPublishAndRebind(): Unit = {
+        val ref = ConfigRecordRef.of(classOf[StringsConfig], new StringsConfig("a", "y"))
+        val changes = new CopyOnWriteArrayList[(Snapshot[StringsConfig], Snapshot[StringsConfig])]()
+        ref.addListener((previous, current) => changes.add((previous, current)))
+
+        assertEquals(2L, ref.publish(new StringsConfig("b", "y")).version)
+        assertEquals(3L, ref.rebind(ConfigFactory.parseString("abcd = c, yes = y")).version)
+        assertEquals(new StringsConfig("c", "y"), ref.get)
+
+        assertEquals(List(1L -> 2L, 2L -> 3L), changes.asScala.toList.map { case (p, c) => p.version -> c.version })
+        assertEquals(new StringsConfig("b", "y"), changes.get(1)._1.value)
+    }
+
+    @Test
+    def testFailedRebindKeepsCurrent(): Unit = {
+        val ref = ConfigRecordRef.of(classOf[StringsConfig], new StringsConfig("a", "y"))
+        intercept[ConfigException.ValidationFailed] {
+            ref.rebind(ConfigFactory.parseString("abcd = c"))
+        }
+        intercept[ConfigException.Generic] {
+            ref.compareAndRebind(1L, () => throw new ConfigException.Generic("load failed"))
+        }
+        assertEquals(1L, ref.version)
+        // a failed rebind doesn't hold up the next one
+        assertTrue(ref.compareAndRebind(1L, () => ConfigFactory.parseString("abcd = b, yes = y")))
+    }
+
+    @Test
+    def testCompareAndRebindStaleVersion(): Unit = {
+        val ref = ConfigRecordRef.of(classOf[StringsConfig], new StringsConfig("a", "y"))
+        val supplied = new AtomicInteger()
+        assertTrue(ref.compareAndRebind(1L, () => { supplied.incrementAndGet(); ConfigFactory.parseString("abcd = b, yes = y") }))
+        assertFalse(ref.compareAndRebind(1L, () => { supplied.incrementAndGet(); ConfigFactory.parseString("abcd = c, yes = y") }))
+        assertEquals(1, supplied.get)
+        assertEquals(2L, ref.version)
+        assertEquals(new StringsConfig("b", "y"), ref.get)
+    }
+
+    @Test
+    def testConcurrentCompareAndRebindBindsOnce(): Unit = {
+        val ref = ConfigRecordRef.of(classOf[StringsConfig], new StringsConfig("a", "y"))
+        val binding = new CountDownLatch(1)
+        val release = new CountDownLatch(1)
+        val executor = Executors.newSingleThreadExecutor()
+        try {
+            val first = executor.submit(() => ref.compareAndRebind(1L, () => {
+                binding.countDown()
+                release.await()
+                ConfigFactory.parseString("abcd = b, yes = y")
+            }))
+            assertTrue(binding.await(10, TimeUnit.SECONDS))
+            // a second trigger while the first is binding neither binds nor waits
+            assertFalse(ref.compareAndRebind(1L, () => throw new AssertionError("bound twice")))
+            release.countDown()
+            assertTrue(first.get(10, TimeUnit.SECONDS))
+        } finally {
+            executor.shutdownNow()
+        }
+        assertEquals(2L, ref.version)
+    }
+
+    @Test
+    def testConcurrentPublishVersions(): Unit = {
+        val ref = ConfigRecordRef.of(classOf[StringsConfig], new StringsConfig("a", "y"))
+        val versions = new CopyOnWriteArrayList[Long]()
+        ref.addListener((_, current) => versions.add(current.version))
+        val executor = Executors.newFixedThreadPool(4)
+        try {
+            val futures = (1 to 400).map(i => executor.submit(() => ref.publish(new StringsConfig(i.toString, "y"))))
+            futures.foreach(_.get(10, TimeUnit.SECONDS))
+        } finally {
+            executor.shutdownNow()
+        }
+        assertEquals(401L, ref.version)
+        assertEquals((2L to 401L).toList, versions.asScala.toList.sorted)
+    }
+
+    @Test
+    def testKeyNamingStrategy(): Unit = {
+        val ref = ConfigRecordRef.create(ConfigFactory.parseString("ABCD = a, YES = y"), classOf[StringsConfig],
+            KeyNamingStrategy.SCREAMING_SNAKE_CASE)
+        assertEquals(new StringsConfig("a", "y"), ref.get)
+        ref.rebind(ConfigFactory.parseString("ABCD = b, YES = y"))
+        assertTrue(ref.compareAndRebind(2, () => ConfigFactory.parseString("ABCD = c, YES = y")))
+        assertEquals(new StringsConfig("c", "y"), ref.get)
+
+        val of = ConfigRecordRef.of(classOf[StringsConfig], new StringsConfig("a", "y"), KeyNamingStrategy.SCREAMING_SNAKE_CASE)
+        of.rebind(ConfigFactory.parseString("ABCD = b, YES = y"))
+        assertEquals(new StringsConfig("b", "y"), of.get)
+    }
+
+    @Test
+    def testRebindFromListener(): Unit = {
+        val ref = ConfigRecordRef.of(classOf[StringsConfig], new StringsConfig("a", "y"))
+        val rebound = new CopyOnWriteArrayList[java.lang.Boolean]()
+        ref.addListener((_, current) => if (current.version == 2)
+            rebound.add(ref.compareAndRebind(2, () => ConfigFactory.parseString("abcd = c, yes = y"))))
+        assertTrue(ref.compareAndRebind(1, () => ConfigFactory.parseString("abcd = b, yes = y")))
+        assertEquals(List(true), rebound.asScala.toList)
+        assertEquals(3L, ref.version)
+        assertEquals(new StringsConfig("c", "y"), ref.get)
+    }
+
+    @Test
+    def testRebindWhileListenerRuns(): Unit = {
+        val ref = ConfigRecordRef.of(classOf[StringsConfig], new StringsConfig("a", "y"))
+        val listening = new CountDownLatch(1)
+        val release = new CountDownLatch(1)
+        ref.addListener((_, current) => if (current.version == 2) {
+            listening.countDown()
+            release.await(10, TimeUnit.SECONDS)
+        })
+        val executor = Executors.newSingleThreadExecutor()
+        try {
+            val first = executor.submit(() => ref.compareAndRebind(1, () => ConfigFactory.parseString("abcd = b, yes = y")))
+            assertTrue(listening.await(10, TimeUnit.SECONDS))
+            // the first call is still in its listener, but done binding
+            assertTrue(ref.compareAndRebind(2, () => ConfigFactory.parseString("abcd = c, yes = y")))
+            release.countDown()
+            assertTrue(first.get(10, TimeUnit.SECONDS))
+        } finally {
+            release.countDown()
+            executor.shutdownNow()
+        }
+        assertEquals(3L, ref.version)
+    }
+
+    @Test
+    def testListenerFailureDoesNotStopOthers(): Unit = {
+        val ref = ConfigRecordRef.of(classOf[StringsConfig], new StringsConfig("a", "y"))
+        val called = new AtomicInteger()
+        ref.addListener((_, _) => throw new IllegalStateException("listener failed"))
+        ref.addListener((_, _) => called.incrementAndGet())
+        val failures = new CopyOnWriteArrayList[Throwable]()
+        val thread = Thread.currentThread
+        val handler = thread.getUncaughtExceptionHandler
+        thread.setUncaughtExceptionHandler((_, e) => failures.add(e))
+        try {
+            assertEquals(2L, ref.publish(new StringsConfig("b", "y")).version)
+            assertTrue(ref.compareAndRebind(2, () => ConfigFactory.parseString("abcd = c, yes = y")))
+        } finally {
+            thread.setUncaughtExceptionHandler(handler)
+        }
+        assertEquals(2, called.get)
+        assertEquals(List("listener failed", "listener failed"), failures.asScala.toList.map(_.getMessage))
+        assertEquals(new StringsConfig("c", "y"), ref.get)
+    }
+}
@@ -0,0 +1,151 @@
+package com.typesafe.config.impl
+
+import io.github.dkichler.config.ConfigRecordException.BadRecord
+import io.github.dkichler.config.{ConfigRecordFactory, ConfigRecordWarmup}
+import org.junit.Assert._
+import org.junit._
+import recordconfig._
+
+import java.net.URLClassLoader
+import java.nio.file.Files
+import java.util.concurrent.atomic.AtomicReference
+import java.util.concurrent.{ExecutionException, TimeUnit}
+import java.util.jar.{JarEntry, JarOutputStream}
+import scala.jdk.CollectionConverters.SetHasAsScala
+
+class ConfigRecordWarmupTest extends TestUtils {
+
+    @Test
+    def testRecordClasses(): Unit = {
+        val warmed = ConfigRecordWarmup.defaults()
+            .setRecordClasses(classOf[PipelineConfig], classOf[TestRecordConfig])
+            .setSyntheticBinds(10)
+            .run()
+        assertEquals(java.util.Set.of(classOf[PipelineConfig], classOf[TestRecordConfig]), warmed)
+    }
+
+    @Test
+    def testScanPackageDirectory(): Unit = {
+        val records = ConfigRecordWarmupImpl.scanPackage("recordconfig", classOf[PipelineConfig].getClassLoader)
+        assertTrue(records.contains(classOf[StringsConfig]))
+        assertTrue(records.contains(classOf[PipelineConfig]))
+        assertTrue(records.contains(classOf[Stage.Source]))
+        assertFalse(records.contains(classOf[SimpleBean]))
+        assertTrue(ConfigRecordWarmupImpl.scanPackage("nope", classOf[PipelineConfig].getClassLoader).isEmpty)
+    }
+
+    @Test
+    def testScanPackageJar(): Unit = {
+        val jar = Files.createTempFile("warmup", ".jar")
+        try {
+            val out = new JarOutputStream(Files.newOutputStream(jar))
+            try {
+                out.putNextEntry(new JarEntry("recordconfig/"))
+                out.closeEntry()
+                out.putNextEntry(new JarEntry("recordconfig/StringsConfig.class"))
+                val in = classOf[StringsConfig].getResourceAsStream("StringsConfig.class")
+                try in.transferTo(out) finally in.close()
+                out.closeEntry()
+            } finally {
+                out.close()
+            }
+            val loader = new URLClassLoader(Array(jar.toUri.toURL), null)
+            try {
+                val records = ConfigRecordWarmupImpl.scanPackage("recordconfig", loader)
+                assertEquals(List("recordconfig.StringsConfig"), records.asScala.toList.map(_.getName))
+                assertSame(loader, records.iterator.next.getClassLoader)
+            } finally {
+                loader.close()
+            }
+        } finally {
+            Files.delete(jar)
+        }
+    }
+
+    @Test
+    def testPackages(): Unit = {
+        // the test fixtures include records which can't be bound
+        val e = intercept[BadRecord] {
+            ConfigRecordWarmup.defaults()
+                .setPackages("recordconfig")
+                .setClassLoader(classOf[PipelineConfig].getClassLoader)
+                .run()
+        }
+        val messages = (e +: e.getSuppressed.toList).map(_.getMessage)
+        assertTrue(messages.toString, messages.exists(_.contains("@LookupTable is only supported on Map components")))
+        assertTrue(messages.toString, messages.exists(_.contains("only records and sealed interfaces can be bound")))
+    }
+
+    @Test
+    def testStart(): Unit = {
+        // packages are scanned by the warm-up itself, so this sees the thread it runs on
+        val warmupThread = new AtomicReference[Thread]()
+        val loader = new ClassLoader(classOf[PipelineConfig].getClassLoader) {
+            override def getResources(name: String): java.util.Enumeration[java.net.URL] = {
+                warmupThread.set(Thread.currentThread)
+                super.getResources(name)
+            }
+        }
+        val warmed = ConfigRecordWarmup.defaults()
+            .setRecordClasses(classOf[PipelineConfig])
+            .setPackages("recordconfig.none")
+            .setClassLoader(loader)
+            .start()
+            .get(10, TimeUnit.SECONDS)
+        assertEquals(java.util.Set.of(classOf[PipelineConfig]), warmed)
+        assertEquals("config-record-warmup", warmupThread.get.getName)
+        assertTrue(warmupThread.get.isDaemon)
+
+        val thread = new AtomicReference[Thread]()
+        ConfigRecordWarmup.defaults()
+            .setRecordClasses(classOf[PipelineConfig])
+            .start(task => { thread.set(Thread.currentThread); task.run() })
+            .get(10, TimeUnit.SECONDS)
+        assertSame(Thread.currentThread, thread.get)
+    }
+
+    @Test
+    def testFailureStillWarmsOthers(): Unit = {
+        val future = ConfigRecordWarmup.defaults()
+            .setRecordClasses(classOf[UnsupportedStageConfig], classOf[BadLookupTableConfig], classOf[StringsConfig])
+            .start(task => task.run())
+        val e = intercept[ExecutionException] {
+            future.get(10, TimeUnit.SECONDS)
+        }
+        assertTrue(e.getCause.isInstanceOf[BadRecord])
+        assertTrue(e.getCause.getMessage, e.getCause.getMessage.contains("only records and sealed interfaces can be bound"))
+        assertEquals(1, e.getCause.getSuppressed.length)
+    }
+
+    @Test
+    def testSyntheticConfigs(): Unit = {
+        for (recordClass <- List(classOf[PipelineConfig], classOf[TestRecordConfig], classOf[OptionalsConfig],
+            classOf[MapsConfig], classOf[ArraysConfig], classOf[SetsConfig], classOf[LookupTablesConfig], classOf[BeanConfig])) {
+            val config = ConfigRecordWarmupImpl.syntheticConfig(recordClass)
+            assertNotNull(recordClass.getName, config)
+            assertNotNull(ConfigRecordFactory.create(config, recordClass))
+        }
+        val pipeline = ConfigRecordFactory.create(ConfigRecordWarmupImpl.syntheticConfig(classOf[PipelineConfig]), classOf[PipelineConfig])
+        assertEquals(1, pipeline.stages.size)
+        assertTrue(pipeline.fallback.isPresent)
+        val nested = ConfigRecordFactory.create(ConfigRecordWarmupImpl.syntheticConfig(classOf[NestedStepConfig]), classOf[NestedStepConfig])
+        assertEquals(new NestedStepConfig.Rename("warmup", "warmup"), nested.step)
+        assertEquals(java.util.Set.of(classOf[NestedStepConfig]),
+            ConfigRecordWarmup.defaults().setRecordClasses(classOf[NestedStepConfig]).setSyntheticBinds(10).run())
+    }
+
+    @Test
+    def testNoSyntheticConfig(): Unit = {
+        assertNull(ConfigRecordWarmupImpl.syntheticConfig(classOf[NotABeanFieldConfig]))
+        // a component type which can't be bound is not detected, so the record is still prepared, just not bound
+        assertEquals(java.util.Set.of(classOf[NotABeanFieldConfig]),
+            ConfigRecordWarmup.defaults().setRecordClasses(classOf[NotABeanFieldConfig]).setSyntheticBinds(10).run())
+    }
+
+    @Test
+    def testNegativeSyntheticBinds(): Unit = {
+        intercept[IllegalArgumentException] {
+            ConfigRecordWarmup.defaults().setSyntheticBinds(-1)
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.typesafe.config.impl
+
+import com.typesafe.config._
+import io.github.dkichler.config.ConfigRecordException.BadRecord
+import io.github.dkichler.config.{ConfigRecordFactory, ConfigRecordWriter, KeyNamingStrategy}
+import org.junit.Assert._
+import org.junit._
+import recordconfig._
+
+import java.io.ByteArrayOutputStream
+import java.nio.charset.StandardCharsets
+import java.time.Duration
+import scala.jdk.CollectionConverters.MapHasAsJava
+
+class ConfigRecordWriterTest extends TestUtils {
+
+    @Test
+    def testRoundTripHocon(): Unit = {
+        val config = loadConfig()
+        assertRoundTrip(ConfigRecordFactory.create(config.getConfig("arrays"), classOf[ArraysConfig]), ConfigSyntax.CONF)
+        assertRoundTrip(ConfigRecordFactory.create(config.getConfig("optionals"), classOf[OptionalsConfig]), ConfigSyntax.CONF)
+        assertRoundTrip(ConfigRecordFactory.create(config.getConfig("numbers"), classOf[NumbersConfig]), ConfigSyntax.CONF)
+        assertRoundTrip(ConfigRecordFactory.create(config.getConfig("durations"), classOf[DurationsConfig]), ConfigSyntax.CONF)
+        assertRoundTrip(ConfigRecordFactory.create(config.getConfig("bytes"), classOf[BytesConfig]), ConfigSyntax.CONF)
+        assertRoundTrip(ConfigRecordFactory.create(config.getConfig("enums"), classOf[EnumsConfig]), ConfigSyntax.CONF)
+        assertRoundTrip(ConfigRecordFactory.create(config.getConfig("values"), classOf[ValuesConfig]), ConfigSyntax.CONF)
+    }
+
+    @Test
+    def testRoundTripJson(): Unit = {
+        val config = loadConfig()
+        assertRoundTrip(ConfigRecordFactory.create(config.getConfig("arrays"), classOf[ArraysConfig]), ConfigSyntax.JSON)
+        assertRoundTrip(ConfigRecordFactory.create(config.getConfig("optionals"), classOf[OptionalsConfig]), ConfigSyntax.JSON)
+        assertRoundTrip(ConfigRecordFactory.create(config.getConfig("durations"), classOf[DurationsConfig]), ConfigSyntax.JSON)
+    }
+
+    @Test
+    def testConcise(): Unit = {
+        val record = new TestRecordConfig(new NumbersConfig(1, 2, 3L, 4L, 1.5, 2.5))
+        assertEquals("{numbers={intVal=1,intObj=2,longVal=3,longObj=4,doubleVal=1.5,doubleObj=2.5}}",
+            ConfigRecordWriter.defaults().setFormatted(false).render(record))
+        assertEquals("{\"numbers\":{\"intVal\":1,\"intObj\":2,\"longVal\":3,\"longObj\":4,\"doubleVal\":1.5,\"doubleObj\":2.5}}",
+            ConfigRecordWriter.defaults().setFormatted(false).setJson(true).render(record))
+    }
+
+    @Test
+    def testFormatted(): Unit = {
+        val record = new EnumsConfig(EnumsConfig.Problem.P2, java.util.List.of(EnumsConfig.Solution.S1))
+        assertEquals(
+            """{
+              |    problem = "P2"
+              |    solutions = [
+              |        "S1"
+              |    ]
+              |}
+              |""".stripMargin, ConfigRecordWriter.defaults().render(record))
+        assertEquals(
+            """{
+              |    "problem" : "P2",
+              |    "solutions" : [
+              |        "S1"
+              |    ]
+              |}
+              |""".stripMargin, ConfigRecordWriter.defaults().setJson(true).render(record))
+    }
+
+    @Test
+    def testKeyNamingStrategy(): Unit = {
+        val record = new NumbersConfig(1, 2, 3L, 4L, 1.5, 2.5)
+        val kebab = ConfigRecordWriter.defaults().setKeyNamingStrategy(KeyNamingStrategy.KEBAB_CASE).render(record)
+        assertTrue(kebab.contains("int-val = 1"))
+        assertEquals(record, ConfigRecordFactory.create(ConfigFactory.parseString(kebab), classOf[NumbersConfig]))
+        // read back with the strategy it was written with
+        val screaming = ConfigRecordWriter.defaults().setKeyNamingStrategy(KeyNamingStrategy.SCREAMING_SNAKE_CASE).render(record)
+        assertTrue(screaming, screaming.contains("\"INT_VAL\" = 1"))
+        assertEquals(record, ConfigRecordFactory.create(ConfigFactory.parseString(screaming), classOf[NumbersConfig],
+            KeyNamingStrategy.SCREAMING_SNAKE_CASE))
+    }
+
+    @Test
+    def testAbsentValuesOmitted(): Unit = {
+        val record = new ObjectsConfig(new ObjectsConfig.ValueObject(null, "notNull", java.util.Optional.empty()))
+        assertEquals("{valueObject={mandatoryValue=\"notNull\"}}",
+            ConfigRecordWriter.defaults().setFormatted(false).render(record))
+    }
+
+    @Test
+    def testRedactedPaths(): Unit = {
+        val record = new MapConfig(
+            Map("a" -> "A").asJava,
+            Map("a" -> Integer.valueOf(1)).asJava,
+            Map("one" -> new StringsConfig("secret", "y")).asJava)
+        val rendered = ConfigRecordWriter.defaults()
+            .setRedactedPaths("mapOfInt", "mapOfRecord.one.abcd")
+            .setFormatted(false)
+            .render(record)
+        assertEquals("{mapOfString={a=\"A\"},mapOfInt=\"<redacted>\",mapOfRecord={one={abcd=\"<redacted>\",yes=\"y\"}}}", rendered)
+    }
+
+    @Test
+    def testRedactedPathsInConfigValues(): Unit = {
+        val config = ConfigFactory.parseString(
+            """
+              |obj = 42
+              |config { user = u, password = hunter2 }
+              |configObj { nested { secret = s, other = o } }
+              |configValue { password = p }
+              |list = [{ password = p, user = u }]
+              |unwrappedMap { a = 1 }
+              |""".stripMargin)
+        val record = ConfigRecordFactory.create(config, classOf[ValuesConfig])
+        val writer = ConfigRecordWriter.defaults()
+            .setRedactedPaths("config.password", "configObj.nested.secret", "configValue.password", "list.password")
+            .setFormatted(false)
+        assertEquals("{obj=42,config={password=\"<redacted>\",user=\"u\"},configObj={nested={other=\"o\",secret=\"<redacted>\"}}," +
+            "configValue={password=\"<redacted>\"},list=[{password=\"<redacted>\",user=\"u\"}],unwrappedMap={a=1}}",
+            writer.render(record))
+        assertFalse(writer.setJson(true).render(record).contains("hunter2"))
+        // values with nothing redacted below them are rendered whole
+        assertTrue(ConfigRecordWriter.defaults().setFormatted(false).render(record).contains("config={\"password\":\"hunter2\",\"user\":\"u\"}"))
+    }
+
+    @Test
+    def testBeans(): Unit = {
+        val record = ConfigRecordFactory.create(loadConfig(), classOf[BeanConfig])
+        val reread = ConfigRecordFactory.create(ConfigFactory.parseString(ConfigRecordWriter.defaults().render(record)), classOf[BeanConfig])
+        assertEquals("world", reread.beanMap.get("bean2").getString)
+        assertEquals(123, reread.beanMap.get("bean2").getInteger)
+        assertEquals(2, reread.beanList.size)
+    }
+
+    @Test
+    def testOutputStream(): Unit = {
+        val out = new ByteArrayOutputStream()
+        ConfigRecordWriter.defaults().setFormatted(false).write(new StringsConfig("été", "y"), out)
+        assertEquals("{abcd=\"été\",yes=\"y\"}", new String(out.toByteArray, StandardCharsets.UTF_8))
+    }
+
+    @Test
+    def testDurationUnits(): Unit = {
+        val record = new DurationsConfig(Duration.ofDays(2), Duration.ofMinutes(90), Duration.ofNanos(1500))
+        assertEquals("{second=\"2d\",secondAsNumber=\"90m\",halfSecond=\"1500ns\"}",
+            ConfigRecordWriter.defaults().setFormatted(false).render(record))
+    }
+
+    @Test
+    def testSealedInterfaces(): Unit = {
+        val record = new PipelineConfig(
+            new Stage.Source("in", 3),
+            java.util.List.of(new Stage.Fanout(java.util.List.of("a")), new Stage.Sink("out", Duration.ofSeconds(5))),
+            Map[String, Stage]("f" -> new Stage.Filter("x")).asJava,
+            java.util.Optional.empty())
+        assertEquals("{first={kind=\"source\",topic=\"in\",partitions=3},stages=[{kind=\"Fanout\",targets=[\"a\"]}," +
+            "{kind=\"sink\",topic=\"out\",flushInterval=\"5s\"}],named={f={kind=\"filter\",expression=\"x\"}}}",
+            ConfigRecordWriter.defaults().setFormatted(false).render(record))
+        assertRoundTrip(record, ConfigSyntax.CONF)
+        assertRoundTrip(record, ConfigSyntax.JSON)
+    }
+
+    @Test
+    def testUnsupportedValue(): Unit = {
+        val e = intercept[BadRecord] {
+            ConfigRecordWriter.defaults().render(new NotABeanFieldConfig(new NotABeanFieldConfig.NotABean()))
+        }
+        assertTrue(e.getMessage.contains("Unsupported type for writing"))
+    }
+
+    private def assertRoundTrip[T <: Record](record: T, syntax: ConfigSyntax): Unit = {
+        val rendered = ConfigRecordWriter.defaults().setJson(syntax == ConfigSyntax.JSON).render(record)
+        val reread = ConfigRecordFactory.create(
+            ConfigFactory.parseString(rendered, ConfigParseOptions.defaults().setSyntax(syntax)),
+            record.getClass)
+        assertEquals(rendered, record, reread)
+    }
+}
@@ -0,0 +1,94 @@
+package com.typesafe.config.impl
+
+import io.github.dkichler.config.{CompactStringMap, PrefixTrieMap}
+import org.junit.Assert._
+import org.junit._
+
+import java.util
+import scala.jdk.CollectionConverters.{MapHasAsJava, MapHasAsScala}
+
+class LookupTableTest extends TestUtils {
+
+    private val generated: Map[String, Integer] = (0 until 1000).map(i => s"key-$i" -> Integer.valueOf(i)).toMap
+
+    @Test
+    def testCompactStringMap(): Unit = {
+        val map = CompactStringMap.copyOf(generated.asJava)
+        assertEquals(generated.size, map.size)
+        for ((k, v) <- generated) {
+            assertEquals(v, map.get(k))
+            // equal but not the same instance, so the hash and equals path is used
+            assertEquals(v, map.get(new String(k.toCharArray)))
+        }
+        assertNull(map.get("key-1000"))
+        assertNull(map.get(42))
+        assertFalse(map.containsKey("nope"))
+        assertEquals(-1, map.getOrDefault("nope", -1))
+        assertEquals(generated.asJava, map)
+        assertEquals(new util.HashMap[String, Integer](generated.asJava), map)
+        assertEquals(generated.asJava.hashCode, map.hashCode)
+        assertEquals(generated, map.asScala.toMap)
+    }
+
+    @Test
+    def testCompactStringMapEmpty(): Unit = {
+        val map = CompactStringMap.copyOf(new util.HashMap[String, String]())
+        assertTrue(map.isEmpty)
+        assertNull(map.get("a"))
+        assertFalse(map.entrySet.iterator.hasNext)
+    }
+
+    @Test
+    def testCompactStringMapImmutable(): Unit = {
+        val map = CompactStringMap.copyOf(Map("a" -> "b").asJava)
+        intercept[UnsupportedOperationException] {
+            map.put("c", "d")
+        }
+        intercept[UnsupportedOperationException] {
+            map.entrySet.iterator.next.setValue("c")
+        }
+    }
+
+    @Test
+    def testPrefixTrieMapExact(): Unit = {
+        val map = PrefixTrieMap.copyOf(generated.asJava)
+        assertEquals(generated.size, map.size)
+        for ((k, v) <- generated) {
+            assertEquals(v, map.get(k))
+        }
+        assertNull(map.get("key-"))
+        assertNull(map.get("key-1000"))
+        assertEquals(generated.asJava, map)
+        assertEquals(generated, map.asScala.toMap)
+    }
+
+    @Test
+    def testPrefixTrieMapLongestPrefix(): Unit = {
+        val map = PrefixTrieMap.copyOf(Map(
+            "/api" -> "api",
+            "/api/users" -> "users",
+            "/api/user-groups" -> "groups",
+            "/static" -> "static").asJava)
+        assertEquals("users", map.longestPrefixMatch("/api/users/42"))
+        assertEquals("users", map.longestPrefixMatch("/api/users"))
+        assertEquals("api", map.longestPrefixMatch("/api/user"))
+        assertEquals("groups", map.longestPrefixMatch("/api/user-groups/1"))
+        assertEquals("api", map.longestPrefixMatch("/api/orders"))
+        assertEquals("static", map.longestPrefixMatch("/static/app.js"))
+        assertNull(map.longestPrefixMatch("/ap"))
+        assertNull(map.longestPrefixMatch(""))
+        assertEquals("/api/users", map.longestPrefixEntry("/api/users/42").getKey)
+        assertNull(map.longestPrefixEntry("/other"))
+        // only exact keys are found by get
+        assertNull(map.get("/api/users/42"))
+    }
+
+    @Test
+    def testPrefixTrieMapEmptyKey(): Unit = {
+        val map = PrefixTrieMap.copyOf(Map("" -> "default", "a" -> "a").asJava)
+        assertEquals("default", map.longestPrefixMatch("b"))
+        assertEquals("default", map.longestPrefixMatch(""))
+        assertEquals("a", map.longestPrefixMatch("ab"))
+        assertEquals("default", map.get(""))
+    }
+}
@@ -0,0 +1,49 @@
+package com.typesafe.config.impl
+
+import com.typesafe.config._
+
+import java.io.{InputStream, InputStreamReader}
+import scala.reflect.{ClassTag, classTag}
+
+/**
+ * Helpers shared by the test classes.
+ */
+trait TestUtils {
+
+    protected def intercept[E <: Throwable: ClassTag](block: => Any): E = {
+        val expectedClass = classTag[E].runtimeClass
+        var thrown: Option[Throwable] = None
+        val result = try {
+            Some(block)
+        } catch {
+            case t: Throwable =>
+                thrown = Some(t)
+                None
+        }
+        thrown match {
+            case Some(t) if expectedClass.isAssignableFrom(t.getClass) =>
+                t.asInstanceOf[E]
+            case Some(t) =>
+                throw new Exception(s"Expected exception ${expectedClass.getName} was not thrown, got $t", t)
+            case None =>
+                throw new Exception(s"Expected exception ${expectedClass.getName} was not thrown, no exception was thrown and got result $result")
+        }
+    }
+
+    protected def loadConfig(): Config = {
+        val configIs: InputStream = this.getClass().getClassLoader().getResourceAsStream("recordconfig/recordconfig01.conf")
+        try {
+            ConfigFactory.parseReader(new InputStreamReader(configIs),
+                ConfigParseOptions.defaults.setSyntax(ConfigSyntax.CONF)).resolve
+        } finally {
+            configIs.close()
+        }
+    }
+
+    protected def parseConfig(s: String) = {
+        val options = ConfigParseOptions.defaults().
+          setOriginDescription("test string").
+          setSyntax(ConfigSyntax.CONF);
+        ConfigFactory.parseString(s, options).asInstanceOf[SimpleConfig]
+    }
+}